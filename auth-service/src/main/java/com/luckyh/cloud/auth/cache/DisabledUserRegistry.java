@@ -0,0 +1,181 @@
+package com.luckyh.cloud.auth.cache;
+
+import com.luckyh.cloud.auth.config.TokenValidationProperties;
+import com.luckyh.cloud.auth.mapper.SysUserMapper;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 禁用用户位图
+ * <p>
+ * 以用户ID为位序号记录所有非启用状态的用户，无状态令牌校验据此拒绝已禁用用户的令牌，不再逐次查询sys_user。
+ * 启动时及每隔resyncInterval从数据库全量加载；用户启用或禁用后调用{@link #disable(Long)}或{@link #enable(Long)}，
+ * 通过Redis频道通知所有auth-service实例在秒级内生效。
+ * <p>
+ * 网关本地校验令牌时不查询该位图，禁用用户时同时递增其令牌纪元并删除刷新令牌族（与退出所有设备相同），
+ * 已签发的令牌随网关的纪元校验立即失效。
+ * <p>
+ * 位图写时复制，读取无锁；超出int范围的用户ID单独记录。
+ */
+@Slf4j
+@Component
+public class DisabledUserRegistry {
+
+    private static final String DISABLED = "0";
+    private static final String ENABLED = "1";
+
+    private final SysUserMapper sysUserMapper;
+    private final RedisUtils redisUtils;
+    private final TokenValidationProperties properties;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenEpochCache tokenEpochCache;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "disabled-user-resync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot = new Snapshot(new BitSet(), Set.of());
+
+    public DisabledUserRegistry(SysUserMapper sysUserMapper,
+                                RedisUtils redisUtils,
+                                TokenValidationProperties properties,
+                                RedisMessageListenerContainer listenerContainer,
+                                RefreshTokenStore refreshTokenStore,
+                                TokenEpochCache tokenEpochCache) {
+        this.sysUserMapper = sysUserMapper;
+        this.redisUtils = redisUtils;
+        this.properties = properties;
+        this.listenerContainer = listenerContainer;
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenEpochCache = tokenEpochCache;
+    }
+
+    @PostConstruct
+    public void init() {
+        resync();
+        listenerContainer.addMessageListener((message, pattern) ->
+                        apply(new String(message.getBody(), StandardCharsets.UTF_8)),
+                ChannelTopic.of(RedisConstants.USER_STATUS_CHANNEL));
+        long intervalMillis = properties.getResyncInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::resyncQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 用户是否已被禁用
+     */
+    public boolean isDisabled(Long userId) {
+        if (userId == null) {
+            return true;
+        }
+        Snapshot current = snapshot;
+        long id = userId;
+        if (id >= 0 && id <= Integer.MAX_VALUE) {
+            return current.bits().get((int) id);
+        }
+        return current.large().contains(userId);
+    }
+
+    /**
+     * 用户被禁用后调用，通知所有实例并吊销该用户已签发的全部令牌
+     */
+    public void disable(Long userId) {
+        update(userId, true);
+        redisUtils.publish(RedisConstants.USER_STATUS_CHANNEL, userId + ":" + DISABLED);
+        long epoch = refreshTokenStore.revokeAll(userId);
+        tokenEpochCache.publish(userId, epoch);
+        log.info("用户{}已禁用，令牌纪元：{}", userId, epoch);
+    }
+
+    /**
+     * 用户被重新启用后调用，通知所有实例
+     */
+    public void enable(Long userId) {
+        update(userId, false);
+        redisUtils.publish(RedisConstants.USER_STATUS_CHANNEL, userId + ":" + ENABLED);
+    }
+
+    /**
+     * 从数据库全量加载禁用用户
+     */
+    public void resync() {
+        List<Long> disabledIds = sysUserMapper.selectDisabledUserIds();
+        BitSet bits = new BitSet();
+        Set<Long> large = new HashSet<>();
+        for (Long id : disabledIds) {
+            if (id >= 0 && id <= Integer.MAX_VALUE) {
+                bits.set(id.intValue());
+            } else {
+                large.add(id);
+            }
+        }
+        synchronized (this) {
+            snapshot = new Snapshot(bits, Set.copyOf(large));
+        }
+        log.debug("禁用用户位图已同步，禁用用户数：{}", disabledIds.size());
+    }
+
+    private void resyncQuietly() {
+        try {
+            resync();
+        } catch (RuntimeException e) {
+            log.warn("同步禁用用户失败，继续使用现有位图：{}", e.getMessage());
+        }
+    }
+
+    private void apply(String message) {
+        int separator = message.lastIndexOf(':');
+        if (separator <= 0) {
+            log.warn("忽略无效的用户状态消息: {}", message);
+            return;
+        }
+        try {
+            Long userId = Long.valueOf(message.substring(0, separator));
+            update(userId, DISABLED.equals(message.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的用户状态消息: {}", message);
+        }
+    }
+
+    private synchronized void update(Long userId, boolean disabled) {
+        Snapshot current = snapshot;
+        long id = userId;
+        if (id >= 0 && id <= Integer.MAX_VALUE) {
+            if (current.bits().get((int) id) == disabled) {
+                return;
+            }
+            BitSet bits = (BitSet) current.bits().clone();
+            bits.set((int) id, disabled);
+            snapshot = new Snapshot(bits, current.large());
+        } else {
+            Set<Long> large = new HashSet<>(current.large());
+            if (disabled ? large.add(userId) : large.remove(userId)) {
+                snapshot = new Snapshot(current.bits(), Set.copyOf(large));
+            }
+        }
+    }
+
+    private record Snapshot(BitSet bits, Set<Long> large) {
+    }
+}
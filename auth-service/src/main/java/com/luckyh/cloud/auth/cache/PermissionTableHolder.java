@@ -0,0 +1,104 @@
+package com.luckyh.cloud.auth.cache;
+
+import cn.hutool.json.JSONUtil;
+import com.luckyh.cloud.auth.entity.SysPermission;
+import com.luckyh.cloud.auth.mapper.SysPermissionMapper;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import com.luckyh.cloud.common.web.permission.PermissionBits;
+import com.luckyh.cloud.common.web.permission.PermissionTable;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 权限表持有者
+ * <p>
+ * 启动时从sys_permission加载启用的权限，以主键ID作为位序号构建{@link PermissionTable}，
+ * 并写入Redis供其他服务构建同版本的权限表。收到角色权限全量失效通知时重新加载，
+ * 权限表版本变化后此前签发的令牌在校验时会被识别为过期。
+ */
+@Slf4j
+@Component
+public class PermissionTableHolder {
+
+    private static final String EVICT_ALL = "*";
+
+    private final SysPermissionMapper sysPermissionMapper;
+    private final RedisUtils redisUtils;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private volatile PermissionTable table = PermissionTable.of(Map.of());
+
+    public PermissionTableHolder(SysPermissionMapper sysPermissionMapper,
+                                 RedisUtils redisUtils,
+                                 RedisMessageListenerContainer listenerContainer) {
+        this.sysPermissionMapper = sysPermissionMapper;
+        this.redisUtils = redisUtils;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+        listenerContainer.addMessageListener((message, pattern) -> {
+            if (EVICT_ALL.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+                reload();
+            }
+        }, ChannelTopic.of(RedisConstants.AUTHORITY_EVICT_CHANNEL));
+    }
+
+    /**
+     * 重新加载权限表
+     */
+    public void reload() {
+        Map<String, Integer> indexByCode = new LinkedHashMap<>();
+        for (SysPermission permission : sysPermissionMapper.selectActivePermissions()) {
+            indexByCode.put(permission.getPermissionCode(), permission.getId().intValue());
+        }
+        PermissionTable loaded = PermissionTable.of(indexByCode);
+        if (loaded.getVersion() != table.getVersion()) {
+            log.info("权限表已加载，权限数：{}，版本：{}", indexByCode.size(), loaded.getVersion());
+        }
+        table = loaded;
+        publish(indexByCode, loaded.getVersion());
+    }
+
+    public PermissionTable getTable() {
+        return table;
+    }
+
+    /**
+     * 按指定权限表将权限编码转换为权限位集，权限表中不存在的编码忽略
+     */
+    public static PermissionBits toBits(PermissionTable current, List<String> permissions) {
+        List<Integer> indices = new ArrayList<>(permissions.size());
+        for (String permission : permissions) {
+            int index = current.indexOf(permission);
+            if (index >= 0) {
+                indices.add(index);
+            }
+        }
+        return PermissionBits.of(indices);
+    }
+
+    private void publish(Map<String, Integer> indexByCode, long version) {
+        Map<String, Object> snapshot = new HashMap<>();
+        snapshot.put("version", version);
+        snapshot.put("codes", indexByCode);
+        try {
+            redisUtils.set(RedisConstants.PERMISSION_TABLE_KEY, JSONUtil.toJsonStr(snapshot));
+        } catch (RuntimeException e) {
+            log.warn("写入权限表失败：{}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.luckyh.cloud.auth.cache;
+
+import com.luckyh.cloud.auth.config.TokenValidationProperties;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 刷新令牌族存储
+ * <p>
+ * 每次登录创建一个刷新令牌族，每个用户一个Redis hash，字段为族ID，值为族内当前序号与最近轮换时间。
+ * 刷新时在Lua脚本中原子地比对并递增序号：序号不一致说明旧刷新令牌被重复使用，直接删除整个族，
+ * 攻击者与合法用户持有的令牌同时失效。退出所有设备只需递增用户的令牌纪元并删除整个hash。
+ * <p>
+ * 同一刷新令牌的并发刷新（如客户端重试、多个标签页同时刷新）只有一个能递增序号。上一序号的令牌在轮换后
+ * refreshReuseGrace内再次使用时不视为重复使用，返回当前序号而不吊销令牌族；超过该时间才按重复使用处理。
+ * <p>
+ * 刷新令牌族与令牌纪元的key以用户ID为hash tag，在Redis Cluster中位于同一槽位。
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    private static final RedisScript<Long> CREATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_family_create.lua"), Long.class);
+    private static final RedisScript<Long> ROTATE_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/refresh_family_rotate.lua"), Long.class);
+
+    private static final int FAMILY_ID_BYTES = 12;
+
+    private final StringRedisTemplate redisTemplate;
+    private final TokenValidationProperties properties;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenStore(StringRedisTemplate redisTemplate, TokenValidationProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * 创建刷新令牌族
+     *
+     * @param ttlSeconds 刷新令牌有效期（秒）
+     */
+    public Family create(Long userId, long ttlSeconds) {
+        byte[] bytes = new byte[FAMILY_ID_BYTES];
+        random.nextBytes(bytes);
+        String familyId = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Long epoch = redisTemplate.execute(CREATE_SCRIPT, keys(userId),
+                familyId, String.valueOf(nowSeconds()), String.valueOf(ttlSeconds));
+        return new Family(familyId, 1, epoch != null ? epoch : 0);
+    }
+
+    /**
+     * 轮换刷新令牌
+     *
+     * @param sequence   令牌中的序号
+     * @param epoch      令牌中的纪元
+     * @param ttlSeconds 刷新令牌有效期（秒）
+     * @return 轮换后的族
+     * @throws RuntimeException 族已吊销、令牌被重复使用或纪元已变更
+     */
+    public Family rotate(Long userId, String familyId, long sequence, long epoch, long ttlSeconds) {
+        Long result = redisTemplate.execute(ROTATE_SCRIPT, keys(userId), familyId, String.valueOf(sequence),
+                String.valueOf(epoch), String.valueOf(nowSeconds()), String.valueOf(ttlSeconds),
+                String.valueOf(properties.getRefreshReuseGrace().toSeconds()));
+        if (result == null || result == -1) {
+            throw new RuntimeException("刷新令牌已失效");
+        }
+        if (result == -2) {
+            log.warn("检测到刷新令牌重复使用，已吊销整个令牌族，用户ID：{}，族ID：{}", userId, familyId);
+            throw new RuntimeException("刷新令牌已失效");
+        }
+        if (result == -3) {
+            throw new RuntimeException("刷新令牌已失效，请重新登录");
+        }
+        return new Family(familyId, result, epoch);
+    }
+
+    /**
+     * 吊销单个令牌族，如单设备退出登录
+     */
+    public void revoke(Long userId, String familyId) {
+        redisTemplate.opsForHash().delete(RedisConstants.refreshFamilyKey(userId), familyId);
+    }
+
+    /**
+     * 退出所有设备：递增令牌纪元并删除全部令牌族，O(1)
+     *
+     * @return 新的令牌纪元
+     */
+    public long revokeAll(Long userId) {
+        Long epoch = redisTemplate.opsForValue().increment(RedisConstants.tokenEpochKey(userId));
+        redisTemplate.delete(RedisConstants.refreshFamilyKey(userId));
+        return epoch != null ? epoch : 0;
+    }
+
+    private static List<String> keys(Long userId) {
+        return List.of(RedisConstants.refreshFamilyKey(userId), RedisConstants.tokenEpochKey(userId));
+    }
+
+    private static long nowSeconds() {
+        return System.currentTimeMillis() / 1000;
+    }
+
+    /**
+     * 刷新令牌族
+     *
+     * @param familyId 族ID
+     * @param sequence 当前序号
+     * @param epoch    令牌纪元
+     */
+    public record Family(String familyId, long sequence, long epoch) {
+    }
+}
@@ -0,0 +1,153 @@
+package com.luckyh.cloud.auth.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.luckyh.cloud.auth.config.TokenValidationProperties;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.core.util.BloomFilter;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 令牌黑名单
+ * <p>
+ * 本地布隆过滤器前置Redis黑名单：过滤器判定不存在的令牌（绝大多数）直接放行，只有判定可能存在时才查询Redis。
+ * 过滤器由吊销通知实时添加，并每隔rebuildInterval以SCAN从Redis全量重建，清除已过期的令牌；
+ * 重建期间收到的吊销通知同时写入新旧过滤器。首次重建完成前所有查询都走Redis。
+ * <p>
+ * 重建时顺带把旧格式（以完整令牌为键）的黑名单条目迁移为摘要键。
+ */
+@Slf4j
+@Component
+public class TokenBlacklist {
+
+    private static final long SCAN_COUNT = 1000;
+    private static final int SHA256_HEX_LENGTH = 64;
+
+    private final RedisUtils redisUtils;
+    private final TokenValidationProperties properties;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "token-blacklist-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public TokenBlacklist(RedisUtils redisUtils,
+                          TokenValidationProperties properties,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.redisUtils = redisUtils;
+        this.properties = properties;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        TokenValidationProperties.Blacklist config = properties.getBlacklist();
+        if (!config.isBloomEnabled()) {
+            return;
+        }
+        listenerContainer.addMessageListener((message, pattern) ->
+                        add(new String(message.getBody(), StandardCharsets.UTF_8)),
+                ChannelTopic.of(RedisConstants.TOKEN_REVOKE_CHANNEL));
+        long intervalMillis = config.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 令牌是否已被吊销
+     */
+    public boolean isRevoked(String token) {
+        String digest = DigestUtil.sha256Hex(token);
+        BloomFilter current = filter;
+        if (current != null && !current.mightContainHex(digest)) {
+            return false;
+        }
+        return redisUtils.isTokenDigestInBlacklist(digest);
+    }
+
+    /**
+     * 从Redis全量重建布隆过滤器
+     */
+    public void rebuild() {
+        TokenValidationProperties.Blacklist config = properties.getBlacklist();
+        BloomFilter next = BloomFilter.create(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        building = next;
+        AtomicLong count = new AtomicLong();
+        try {
+            redisUtils.scan(RedisConstants.TOKEN_BLACKLIST_PREFIX + "*", SCAN_COUNT, key -> {
+                String suffix = key.substring(RedisConstants.TOKEN_BLACKLIST_PREFIX.length());
+                String digest = suffix.length() == SHA256_HEX_LENGTH ? suffix : migrateLegacy(key, suffix);
+                if (digest != null) {
+                    next.putHex(digest);
+                    count.incrementAndGet();
+                }
+            });
+            filter = next;
+        } finally {
+            building = null;
+        }
+        if (count.get() > config.getExpectedInsertions()) {
+            log.warn("黑名单令牌数{}超过布隆过滤器预期容量{}，误判率将上升", count.get(), config.getExpectedInsertions());
+        }
+        log.debug("令牌黑名单布隆过滤器已重建，令牌数：{}", count.get());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("重建令牌黑名单布隆过滤器失败，继续使用现有过滤器：{}", e.getMessage());
+        }
+    }
+
+    private void add(String digest) {
+        if (digest.length() != SHA256_HEX_LENGTH) {
+            log.warn("忽略无效的令牌吊销消息: {}", digest);
+            return;
+        }
+        // 先读building再读filter：重建先发布filter再清空building，读到building为null时filter已是新过滤器，
+        // 反之读到旧filter时building仍为新过滤器，吊销不会只写入即将被替换的旧过滤器
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.putHex(digest);
+        }
+        if (next != null && next != current) {
+            next.putHex(digest);
+        }
+    }
+
+    /**
+     * 将以完整令牌为键的旧条目迁移为摘要键，保留剩余有效期
+     */
+    private String migrateLegacy(String key, String token) {
+        long ttl = redisUtils.getExpire(key);
+        if (ttl == -2) {
+            return null;
+        }
+        String digest = DigestUtil.sha256Hex(token);
+        redisUtils.set(RedisConstants.TOKEN_BLACKLIST_PREFIX + digest, "1",
+                ttl > 0 ? ttl : RedisConstants.LONG_EXPIRE_TIME, TimeUnit.SECONDS);
+        redisUtils.del(key);
+        return digest;
+    }
+}
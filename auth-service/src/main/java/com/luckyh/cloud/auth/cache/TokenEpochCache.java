@@ -0,0 +1,96 @@
+package com.luckyh.cloud.auth.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.luckyh.cloud.auth.config.TokenValidationProperties;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 用户令牌纪元缓存
+ * <p>
+ * 令牌中携带签发时的用户令牌纪元，纪元小于当前值的令牌一律无效。吊销用户的全部令牌只需递增一次纪元，
+ * 不再为每个令牌写黑名单，校验开销与吊销数量无关。当前纪元在本地缓存epochCacheTtl，
+ * 纪元变更时通过Redis频道通知所有实例立即更新。
+ */
+@Slf4j
+@Component
+public class TokenEpochCache {
+
+    private final RedisUtils redisUtils;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<Long, Long> cache;
+
+    public TokenEpochCache(RedisUtils redisUtils,
+                           TokenValidationProperties properties,
+                           RedisMessageListenerContainer listenerContainer) {
+        this.redisUtils = redisUtils;
+        this.listenerContainer = listenerContainer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(100000)
+                .expireAfterWrite(properties.getEpochCacheTtl())
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) ->
+                        apply(new String(message.getBody(), StandardCharsets.UTF_8)),
+                ChannelTopic.of(RedisConstants.TOKEN_EPOCH_CHANNEL));
+    }
+
+    /**
+     * 令牌纪元是否已过期
+     *
+     * @param tokenEpoch 令牌中的纪元，旧令牌不带纪元时视为0
+     * @throws RuntimeException 本地未缓存且读取Redis失败
+     */
+    public boolean isStale(Long userId, Long tokenEpoch) {
+        return (tokenEpoch != null ? tokenEpoch : 0) < current(userId);
+    }
+
+    /**
+     * 用户当前的令牌纪元
+     */
+    public long current(Long userId) {
+        return cache.get(userId, this::load);
+    }
+
+    /**
+     * 纪元递增后更新本地缓存并通知其他实例
+     */
+    public void publish(Long userId, long epoch) {
+        cache.asMap().merge(userId, epoch, Math::max);
+        redisUtils.publish(RedisConstants.TOKEN_EPOCH_CHANNEL, userId + ":" + epoch);
+    }
+
+    /**
+     * 从Redis读取当前纪元；读取失败时抛出异常，不缓存结果，避免在epochCacheTtl内放行已吊销的令牌
+     */
+    private Long load(Long userId) {
+        try {
+            String value = redisUtils.get(RedisConstants.tokenEpochKey(userId));
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (RuntimeException e) {
+            log.warn("读取用户令牌纪元失败，用户ID：{}，原因：{}", userId, e.getMessage());
+            throw new RuntimeException("读取用户令牌纪元失败", e);
+        }
+    }
+
+    private void apply(String message) {
+        int separator = message.indexOf(':');
+        try {
+            cache.asMap().merge(Long.valueOf(message.substring(0, separator)),
+                    Long.valueOf(message.substring(separator + 1)), Math::max);
+        } catch (RuntimeException e) {
+            log.warn("忽略无效的令牌纪元消息: {}", message);
+        }
+    }
+}
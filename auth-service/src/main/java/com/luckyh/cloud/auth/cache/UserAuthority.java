@@ -0,0 +1,23 @@
+package com.luckyh.cloud.auth.cache;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户的角色与权限
+ */
+@Data
+public class UserAuthority {
+
+    /**
+     * 角色编码列表
+     */
+    private List<String> roles = new ArrayList<>();
+
+    /**
+     * 权限编码列表
+     */
+    private List<String> permissions = new ArrayList<>();
+}
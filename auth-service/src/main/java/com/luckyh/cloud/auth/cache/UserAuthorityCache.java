@@ -0,0 +1,155 @@
+package com.luckyh.cloud.auth.cache;
+
+import cn.hutool.json.JSONUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.luckyh.cloud.auth.config.AuthorityCacheProperties;
+import com.luckyh.cloud.auth.mapper.SysUserMapper;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户角色权限缓存
+ * <p>
+ * 登录与刷新令牌时需要用户的角色和权限，原本每次都执行两条多表关联查询。
+ * 这里以"用户ID:角色权限版本号"为键，本地Caffeine为一级缓存、Redis为二级缓存，都未命中时才查询数据库；
+ * 同一键的并发加载只查询一次。
+ * <ul>
+ *     <li>用户的角色（sys_user_role）变更后调用{@link #evictUser(Long)}</li>
+ *     <li>角色的权限（sys_role_permission）或角色本身变更后调用{@link #evictAll()}，递增版本号使全部缓存失效</li>
+ * </ul>
+ * 失效通过Redis频道通知所有auth-service实例清除本地缓存。
+ */
+@Slf4j
+@Component
+public class UserAuthorityCache {
+
+    private static final String CACHE_NAME = "authUserAuthority";
+    private static final String EVICT_ALL = "*";
+
+    private final SysUserMapper sysUserMapper;
+    private final RedisUtils redisUtils;
+    private final AuthorityCacheProperties properties;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<String, UserAuthority> cache;
+
+    private volatile long version;
+    private volatile long versionCheckedAt;
+
+    public UserAuthorityCache(SysUserMapper sysUserMapper,
+                              RedisUtils redisUtils,
+                              AuthorityCacheProperties properties,
+                              RedisMessageListenerContainer listenerContainer,
+                              MeterRegistry meterRegistry) {
+        this.sysUserMapper = sysUserMapper;
+        this.redisUtils = redisUtils;
+        this.properties = properties;
+        this.listenerContainer = listenerContainer;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 订阅缓存失效通知
+     */
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            if (EVICT_ALL.equals(body)) {
+                // 下次读取时重新获取版本号，旧版本的缓存条目不再被访问，随过期时间淘汰
+                versionCheckedAt = 0;
+            } else {
+                invalidateLocal(body);
+            }
+        }, ChannelTopic.of(RedisConstants.AUTHORITY_EVICT_CHANNEL));
+    }
+
+    /**
+     * 获取用户的角色与权限
+     */
+    public UserAuthority get(Long userId) {
+        long currentVersion = currentVersion();
+        return cache.get(userId + ":" + currentVersion, key -> load(userId, currentVersion));
+    }
+
+    /**
+     * 用户的角色变更后清除其缓存
+     */
+    public void evictUser(Long userId) {
+        redisUtils.del(redisKey(userId, currentVersion()));
+        invalidateLocal(String.valueOf(userId));
+        redisUtils.publish(RedisConstants.AUTHORITY_EVICT_CHANNEL, String.valueOf(userId));
+    }
+
+    /**
+     * 角色的权限变更后清除所有用户的缓存
+     */
+    public void evictAll() {
+        version = redisUtils.incr(RedisConstants.AUTHORITY_VERSION_KEY, 1);
+        versionCheckedAt = System.nanoTime();
+        cache.invalidateAll();
+        redisUtils.publish(RedisConstants.AUTHORITY_EVICT_CHANNEL, EVICT_ALL);
+    }
+
+    private UserAuthority load(Long userId, long currentVersion) {
+        String redisKey = redisKey(userId, currentVersion);
+        try {
+            String json = redisUtils.get(redisKey);
+            if (json != null) {
+                return JSONUtil.toBean(json, UserAuthority.class);
+            }
+        } catch (RuntimeException e) {
+            log.warn("读取角色权限缓存失败，用户ID：{}，原因：{}", userId, e.getMessage());
+        }
+
+        UserAuthority authority = new UserAuthority();
+        authority.setRoles(sysUserMapper.selectRoleCodesByUserId(userId));
+        authority.setPermissions(sysUserMapper.selectPermissionsByUserId(userId));
+        // RedisUtils.set自行捕获异常并返回false，回写失败不影响本次登录，下次未命中时重新查询
+        if (!redisUtils.set(redisKey, JSONUtil.toJsonStr(authority), properties.getRedisTtl().toSeconds(), TimeUnit.SECONDS)) {
+            log.warn("写入角色权限缓存失败，用户ID：{}", userId);
+        }
+        return authority;
+    }
+
+    /**
+     * 当前的角色权限版本号，每隔versionCheckInterval或收到失效通知后从Redis重新读取
+     */
+    private long currentVersion() {
+        long now = System.nanoTime();
+        if (versionCheckedAt != 0 && now - versionCheckedAt < properties.getVersionCheckInterval().toNanos()) {
+            return version;
+        }
+        try {
+            String value = redisUtils.get(RedisConstants.AUTHORITY_VERSION_KEY);
+            version = value != null ? Long.parseLong(value) : 0;
+        } catch (RuntimeException e) {
+            log.warn("读取角色权限版本号失败，继续使用本地版本号{}：{}", version, e.getMessage());
+        }
+        versionCheckedAt = now;
+        return version;
+    }
+
+    private void invalidateLocal(String userId) {
+        cache.invalidate(userId + ":" + version);
+    }
+
+    private static String redisKey(Long userId, long version) {
+        return RedisConstants.USER_AUTHORITY_PREFIX + userId + ":" + version;
+    }
+}
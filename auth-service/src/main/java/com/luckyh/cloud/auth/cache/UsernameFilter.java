@@ -0,0 +1,144 @@
+package com.luckyh.cloud.auth.cache;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.luckyh.cloud.auth.config.RegistrationProperties;
+import com.luckyh.cloud.auth.mapper.SysUserMapper;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.core.util.BloomFilter;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 已注册用户名布隆过滤器
+ * <p>
+ * 注册时用于预检用户名：判定不存在的用户名（绝大多数新注册）跳过数据库查询，直接插入并由uk_username兜底；
+ * 判定可能存在时才在计算密码哈希前查询一次数据库，尽早拒绝。过滤器漏判只会让重复用户名走到唯一索引冲突，不影响正确性。
+ * <p>
+ * 启动时及每隔rebuildInterval从数据库流式重建，重建期间收到的注册通知同时写入新旧过滤器。
+ * 用户名按小写规范化，与sys_user不区分大小写的排序规则一致。
+ */
+@Slf4j
+@Component
+public class UsernameFilter {
+
+    private static final int SHA256_HEX_LENGTH = 64;
+
+    private final SysUserMapper sysUserMapper;
+    private final RedisUtils redisUtils;
+    private final RegistrationProperties properties;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "username-filter-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public UsernameFilter(SysUserMapper sysUserMapper,
+                          RedisUtils redisUtils,
+                          RegistrationProperties properties,
+                          RedisMessageListenerContainer listenerContainer) {
+        this.sysUserMapper = sysUserMapper;
+        this.redisUtils = redisUtils;
+        this.properties = properties;
+        this.listenerContainer = listenerContainer;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!properties.isUsernameFilterEnabled()) {
+            return;
+        }
+        listenerContainer.addMessageListener((message, pattern) ->
+                        add(new String(message.getBody(), StandardCharsets.UTF_8)),
+                ChannelTopic.of(RedisConstants.USERNAME_REGISTERED_CHANNEL));
+        long intervalMillis = properties.getRebuildInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::rebuildQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 用户名是否可能已被注册，过滤器未就绪时返回true
+     */
+    public boolean mightExist(String username) {
+        BloomFilter current = filter;
+        return current == null || current.mightContainHex(digest(username));
+    }
+
+    /**
+     * 注册成功后调用，通知所有实例
+     */
+    public void registered(String username) {
+        String digest = digest(username);
+        add(digest);
+        redisUtils.publish(RedisConstants.USERNAME_REGISTERED_CHANNEL, digest);
+    }
+
+    /**
+     * 从数据库全量重建布隆过滤器
+     */
+    public void rebuild() {
+        BloomFilter next = BloomFilter.create(properties.getExpectedInsertions(), properties.getFalsePositiveRate());
+        building = next;
+        AtomicLong count = new AtomicLong();
+        try {
+            sysUserMapper.scanUsernames(context -> {
+                next.putHex(digest(context.getResultObject()));
+                count.incrementAndGet();
+            });
+            filter = next;
+        } finally {
+            building = null;
+        }
+        if (count.get() > properties.getExpectedInsertions()) {
+            log.warn("用户数{}超过用户名布隆过滤器预期容量{}，误判率将上升", count.get(), properties.getExpectedInsertions());
+        }
+        log.debug("用户名布隆过滤器已重建，用户数：{}", count.get());
+    }
+
+    private void rebuildQuietly() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("重建用户名布隆过滤器失败，继续使用现有过滤器：{}", e.getMessage());
+        }
+    }
+
+    private void add(String digest) {
+        if (digest.length() != SHA256_HEX_LENGTH) {
+            log.warn("忽略无效的用户注册消息: {}", digest);
+            return;
+        }
+        // 先读building再读filter：重建先发布filter再清空building，新注册的用户名不会只写入即将被替换的旧过滤器
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.putHex(digest);
+        }
+        if (next != null && next != current) {
+            next.putHex(digest);
+        }
+    }
+
+    private static String digest(String username) {
+        return DigestUtil.sha256Hex(username.toLowerCase(Locale.ROOT));
+    }
+}
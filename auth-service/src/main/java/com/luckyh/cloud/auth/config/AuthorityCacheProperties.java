@@ -0,0 +1,36 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 用户角色权限缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.authority-cache")
+public class AuthorityCacheProperties {
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private long localMaxSize = 10000;
+
+    /**
+     * 本地缓存存活时间
+     */
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    /**
+     * Redis缓存存活时间，直接修改数据库未通知失效时，最长在该时间加localTtl后生效
+     */
+    private Duration redisTtl = Duration.ofMinutes(30);
+
+    /**
+     * 本地缓存的版本号最长多久从Redis重新读取一次，失效通知丢失时的兜底
+     */
+    private Duration versionCheckInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,77 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JWT非对称签名密钥配置
+ * <p>
+ * 未配置任何密钥时沿用jwt.secret共享密钥HS512签发。轮换分两步，全程无需重启：
+ * <ol>
+ *     <li>新增一把PUBLISHED密钥，只发布到JWKS；等待超过网关JWKS拉取间隔与jwksMaxAge之和，确保所有验签方都已拿到新公钥</li>
+ *     <li>把新密钥改为ACTIVE、原密钥改为RETIRING，等待超过访问令牌与刷新令牌的有效期后删除RETIRING密钥</li>
+ * </ol>
+ * 直接新增ACTIVE密钥时，新令牌可能先于新公钥到达验签方而被拒绝。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "jwt.signing")
+public class JwtSigningProperties {
+
+    /**
+     * 签名密钥，最多一把ACTIVE
+     */
+    private List<Key> keys = new ArrayList<>();
+
+    /**
+     * JWKS响应的缓存时间
+     */
+    private Duration jwksMaxAge = Duration.ofMinutes(5);
+
+    @Data
+    public static class Key {
+
+        /**
+         * 密钥ID，写入令牌头的kid
+         */
+        private String kid;
+
+        /**
+         * PKCS#8私钥，PEM或Base64，RSA（RS256）或Ed25519（EdDSA）；PUBLISHED与RETIRING密钥可不配置
+         */
+        private String privateKey;
+
+        /**
+         * X.509公钥，PEM或Base64
+         */
+        private String publicKey;
+
+        /**
+         * 密钥状态
+         */
+        private Status status = Status.ACTIVE;
+    }
+
+    public enum Status {
+
+        /**
+         * 预发布：只发布到JWKS，不用于签发，待所有验签方拉取到公钥后再改为ACTIVE
+         */
+        PUBLISHED,
+
+        /**
+         * 用于签发，同时发布到JWKS
+         */
+        ACTIVE,
+
+        /**
+         * 不再签发，仍发布到JWKS供已签发的令牌验签
+         */
+        RETIRING
+    }
+}
@@ -0,0 +1,41 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 登录保护配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.login")
+public class LoginProtectionProperties {
+
+    /**
+     * 密码校验线程数，0表示取CPU核数的一半（至少1），为其他接口保留CPU
+     */
+    private int hashThreads = 0;
+
+    /**
+     * 密码校验排队上限，超出后立即返回429
+     */
+    private int hashQueueCapacity = 64;
+
+    /**
+     * 等待密码校验结果的最长时间，超时返回429
+     */
+    private Duration hashTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 同一用户名连续失败次数上限，达到后在failureWindow内拒绝登录
+     */
+    private int maxFailures = 5;
+
+    /**
+     * 失败计数窗口，从第一次失败开始计算
+     */
+    private Duration failureWindow = Duration.ofMinutes(15);
+}
@@ -0,0 +1,41 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 密码哈希配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.password")
+public class PasswordEncoderProperties {
+
+    /**
+     * 固定BCrypt强度，0表示按targetVerifyTime自动选择；自动选择的强度保存在Redis，集群内所有实例一致
+     */
+    private int strength = 0;
+
+    /**
+     * 单次密码校验的目标耗时，自动选择不超过该耗时的最大强度
+     */
+    private Duration targetVerifyTime = Duration.ofMillis(250);
+
+    /**
+     * 自动选择的最小强度，硬件再慢也不低于该值
+     */
+    private int minStrength = 10;
+
+    /**
+     * 自动选择的最大强度
+     */
+    private int maxStrength = 14;
+
+    /**
+     * 登录成功后，旧格式或强度低于当前强度的密码哈希是否重新计算
+     */
+    private boolean upgradeOnLogin = true;
+}
@@ -0,0 +1,36 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 用户注册配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.register")
+public class RegistrationProperties {
+
+    /**
+     * 是否用本地布隆过滤器预检用户名，false时每次注册都先查询数据库
+     */
+    private boolean usernameFilterEnabled = true;
+
+    /**
+     * 预期用户数，超出后误判率上升
+     */
+    private long expectedInsertions = 1000000;
+
+    /**
+     * 误判率，误判的用户名会多查询一次数据库
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * 从数据库全量重建的间隔，用于补齐其他实例丢失的注册通知
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
@@ -1,10 +1,17 @@
 package com.luckyh.cloud.auth.config;
 
+import com.luckyh.cloud.auth.password.BCryptCostTuner;
+import com.luckyh.cloud.auth.password.BCryptStrength;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 安全配置类
  * 
@@ -13,13 +20,34 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class SecurityConfig {
 
+    /**
+     * 新密码哈希使用的编码ID，哈希以{bcrypt}为前缀存储
+     */
+    public static final String PASSWORD_ENCODE_ID = "bcrypt";
+
+    /**
+     * BCrypt强度，未固定配置时按目标校验耗时实测选择，并通过Redis在集群内统一
+     *
+     * @return BCrypt强度
+     */
+    @Bean
+    public BCryptStrength bcryptStrength(PasswordEncoderProperties properties, StringRedisTemplate stringRedisTemplate) {
+        return new BCryptStrength(BCryptCostTuner.resolve(properties, stringRedisTemplate));
+    }
+
     /**
      * 密码编码器
+     * <p>
+     * 按哈希前缀的编码ID选择算法；没有前缀的旧哈希按BCrypt校验，登录成功后升级为带前缀的当前强度哈希
      * 
-     * @return BCryptPasswordEncoder实例
+     * @return DelegatingPasswordEncoder实例
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(BCryptStrength bcryptStrength) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(PASSWORD_ENCODE_ID, new BCryptPasswordEncoder(bcryptStrength.value()));
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(PASSWORD_ENCODE_ID, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,66 @@
+package com.luckyh.cloud.auth.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 令牌校验配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "auth.validation")
+public class TokenValidationProperties {
+
+    /**
+     * 是否无状态校验：信任令牌中的用户信息，用户状态只查本地禁用用户位图，不再逐次查询sys_user；
+     * false时回退为每次校验都按用户ID查询数据库
+     */
+    private boolean stateless = true;
+
+    /**
+     * 禁用用户位图从数据库全量同步的间隔，直接修改数据库未发通知时的最长生效延迟
+     */
+    private Duration resyncInterval = Duration.ofMinutes(1);
+
+    /**
+     * 用户令牌纪元的本地缓存时间，纪元变更通知丢失时的最长生效延迟
+     */
+    private Duration epochCacheTtl = Duration.ofSeconds(30);
+
+    /**
+     * 并发刷新宽限时间：刷新令牌轮换后该时间内再次使用上一序号的令牌时返回当前序号，不视为重复使用；0表示不宽限
+     */
+    private Duration refreshReuseGrace = Duration.ofSeconds(5);
+
+    /**
+     * 令牌黑名单布隆过滤器配置
+     */
+    private Blacklist blacklist = new Blacklist();
+
+    @Data
+    public static class Blacklist {
+
+        /**
+         * 是否用本地布隆过滤器前置黑名单查询，false时每次校验都查询Redis
+         */
+        private boolean bloomEnabled = true;
+
+        /**
+         * 预期黑名单令牌数，超出后误判率上升
+         */
+        private long expectedInsertions = 100000;
+
+        /**
+         * 误判率，误判的令牌会多查询一次Redis
+         */
+        private double falsePositiveRate = 0.001;
+
+        /**
+         * 从Redis全量重建的间隔，用于清除已过期的令牌及补齐丢失的吊销通知
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(5);
+    }
+}
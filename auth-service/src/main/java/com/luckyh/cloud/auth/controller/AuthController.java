@@ -4,10 +4,14 @@ import com.luckyh.cloud.auth.common.Result;
 import com.luckyh.cloud.common.core.domain.R;
 import com.luckyh.cloud.auth.dto.LoginDTO;
 import com.luckyh.cloud.auth.dto.RegisterDTO;
+import com.luckyh.cloud.auth.exception.LoginThrottledException;
 import com.luckyh.cloud.auth.service.AuthService;
 import com.luckyh.cloud.auth.vo.LoginVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,13 +30,18 @@ public class AuthController {
      * 用户登录
      */
     @PostMapping("/login")
-    public R<LoginVO> login(@RequestBody @Validated LoginDTO loginDTO) {
+    public ResponseEntity<R<LoginVO>> login(@RequestBody @Validated LoginDTO loginDTO) {
         try {
             LoginVO loginVO = authService.login(loginDTO);
-            return R.success("登录成功", loginVO);
+            return ResponseEntity.ok(R.success("登录成功", loginVO));
+        } catch (LoginThrottledException e) {
+            log.warn("登录被限流，用户名：{}，原因：{}", loginDTO.getUsername(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(R.fail(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage()));
         } catch (Exception e) {
             log.error("登录失败", e);
-            return R.unauthorized(e.getMessage());
+            return ResponseEntity.ok(R.unauthorized(e.getMessage()));
         }
     }
 
@@ -40,16 +49,20 @@ public class AuthController {
      * 用户注册
      */
     @PostMapping("/register")
-    public Result<String> register(@RequestBody @Validated RegisterDTO registerDTO) {
+    public ResponseEntity<Result<String>> register(@RequestBody @Validated RegisterDTO registerDTO) {
         try {
             boolean success = authService.register(registerDTO);
             if (success) {
-                return Result.success("注册成功");
+                return ResponseEntity.ok(Result.success("注册成功"));
             }
-            return Result.error("注册失败");
+            return ResponseEntity.ok(Result.error("注册失败"));
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Result.error(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage()));
         } catch (Exception e) {
             log.error("注册失败", e);
-            return Result.error(e.getMessage());
+            return ResponseEntity.ok(Result.error(e.getMessage()));
         }
     }
 
@@ -85,6 +98,24 @@ public class AuthController {
         }
     }
 
+    /**
+     * 退出所有设备
+     */
+    @PostMapping("/logout/all")
+    public Result<String> logoutAll(@RequestHeader("Authorization") String authHeader) {
+        try {
+            String token = authHeader.replace("Bearer ", "");
+            boolean success = authService.logoutAll(token);
+            if (success) {
+                return Result.success("已退出所有设备");
+            }
+            return Result.error("退出所有设备失败");
+        } catch (Exception e) {
+            log.error("退出所有设备失败", e);
+            return Result.error(e.getMessage());
+        }
+    }
+
     /**
      * 验证令牌
      */
@@ -0,0 +1,45 @@
+package com.luckyh.cloud.auth.controller;
+
+import com.luckyh.cloud.auth.config.JwtSigningProperties;
+import com.luckyh.cloud.auth.jwk.JwtKeyRingManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * JWKS公钥发布接口
+ * <p>
+ * 网关等验签方定期拉取公钥后本地校验令牌，无需持有签名密钥，也无需回调auth-service。
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyRingManager jwtKeyRingManager;
+    private final JwtSigningProperties jwtSigningProperties;
+
+    /**
+     * 获取JWKS，响应体预先生成，支持If-None-Match
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        JwtKeyRingManager.Jwks jwks = jwtKeyRingManager.getJwks();
+        CacheControl cacheControl = CacheControl.maxAge(jwtSigningProperties.getJwksMaxAge()).cachePublic();
+        if (jwks.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(jwks.etag())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(jwks.etag())
+                .body(jwks.body());
+    }
+}
@@ -0,0 +1,82 @@
+package com.luckyh.cloud.auth.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * 权限实体类
+ */
+@Data
+@EqualsAndHashCode(callSuper = false)
+@TableName("sys_permission")
+public class SysPermission implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 权限ID，同时作为令牌权限位集中的位序号
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 权限名称
+     */
+    private String permissionName;
+
+    /**
+     * 权限编码
+     */
+    private String permissionCode;
+
+    /**
+     * 资源类型：1-菜单，2-按钮，3-接口
+     */
+    private Integer resourceType;
+
+    /**
+     * 父权限ID
+     */
+    private Long parentId;
+
+    /**
+     * 路径
+     */
+    private String path;
+
+    /**
+     * 组件
+     */
+    private String component;
+
+    /**
+     * 图标
+     */
+    private String icon;
+
+    /**
+     * 排序
+     */
+    private Integer sortOrder;
+
+    /**
+     * 状态：0-禁用，1-启用
+     */
+    private Integer status;
+
+    /**
+     * 创建时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
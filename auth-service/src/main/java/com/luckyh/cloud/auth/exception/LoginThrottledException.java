@@ -0,0 +1,20 @@
+package com.luckyh.cloud.auth.exception;
+
+import lombok.Getter;
+
+/**
+ * 登录被限流异常，对应HTTP 429
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    /**
+     * 建议客户端重试前等待的秒数
+     */
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
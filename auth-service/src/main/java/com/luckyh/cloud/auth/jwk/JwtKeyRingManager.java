@@ -0,0 +1,95 @@
+package com.luckyh.cloud.auth.jwk;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
+import com.luckyh.cloud.auth.config.JwtSigningProperties;
+import com.luckyh.cloud.common.web.JwtUtils;
+import com.luckyh.cloud.common.web.jwk.JwkConverter;
+import com.luckyh.cloud.common.web.jwk.JwtKeyRing;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT密钥环管理
+ * <p>
+ * 按jwt.signing配置构建密钥环并安装到{@link JwtUtils}，同时预先生成JWKS响应体；
+ * 配置刷新后重新构建，新配置无效时保留原密钥环。
+ */
+@Slf4j
+@Component
+public class JwtKeyRingManager {
+
+    private final JwtSigningProperties properties;
+    private final JwtUtils jwtUtils;
+
+    private volatile Jwks jwks = new Jwks(JSONUtil.toJsonStr(JwkConverter.toJwkSet(Map.of())), "\"empty\"");
+
+    public JwtKeyRingManager(JwtSigningProperties properties, JwtUtils jwtUtils) {
+        this.properties = properties;
+        this.jwtUtils = jwtUtils;
+    }
+
+    @PostConstruct
+    public void init() {
+        install(build());
+    }
+
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            install(build());
+        } catch (RuntimeException e) {
+            log.error("JWT签名密钥配置无效，继续使用原密钥环：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前JWKS响应
+     */
+    public Jwks getJwks() {
+        return jwks;
+    }
+
+    private JwtKeyRing build() {
+        JwtKeyRing.SigningKey signingKey = null;
+        Map<String, PublicKey> verificationKeys = new LinkedHashMap<>();
+        for (JwtSigningProperties.Key key : properties.getKeys()) {
+            if (key.getKid() == null || key.getPublicKey() == null) {
+                throw new IllegalArgumentException("签名密钥缺少kid或公钥");
+            }
+            verificationKeys.put(key.getKid(), PemKeys.publicKey(key.getPublicKey()));
+            if (key.getStatus() == JwtSigningProperties.Status.ACTIVE) {
+                if (signingKey != null) {
+                    throw new IllegalArgumentException("只能配置一把ACTIVE签名密钥");
+                }
+                if (key.getPrivateKey() == null) {
+                    throw new IllegalArgumentException("ACTIVE签名密钥缺少私钥: " + key.getKid());
+                }
+                signingKey = new JwtKeyRing.SigningKey(key.getKid(), PemKeys.privateKey(key.getPrivateKey()));
+            }
+        }
+        return JwtKeyRing.of(signingKey, verificationKeys);
+    }
+
+    private void install(JwtKeyRing keyRing) {
+        jwtUtils.setKeyRing(keyRing);
+        String body = JSONUtil.toJsonStr(JwkConverter.toJwkSet(keyRing.getVerificationKeys()));
+        jwks = new Jwks(body, "\"" + DigestUtil.md5Hex(body) + "\"");
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        log.info("JWT密钥环已加载，签名密钥：{}，验签密钥：{}",
+                signingKey != null ? signingKey.kid() : "HS512共享密钥", keyRing.getVerificationKeys().keySet());
+    }
+
+    /**
+     * 预生成的JWKS响应体及其ETag
+     */
+    public record Jwks(String body, String etag) {
+    }
+}
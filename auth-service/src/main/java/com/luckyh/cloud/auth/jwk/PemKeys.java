@@ -0,0 +1,55 @@
+package com.luckyh.cloud.auth.jwk;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * PEM/Base64密钥解析
+ */
+final class PemKeys {
+
+    private static final String[] ALGORITHMS = {"RSA", "Ed25519"};
+
+    private PemKeys() {
+    }
+
+    /**
+     * 解析PKCS#8私钥
+     */
+    static PrivateKey privateKey(String pem) {
+        PKCS8EncodedKeySpec spec = new PKCS8EncodedKeySpec(decode(pem));
+        for (String algorithm : ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePrivate(spec);
+            } catch (GeneralSecurityException ignored) {
+                // 尝试下一种算法
+            }
+        }
+        throw new IllegalArgumentException("无法解析私钥，仅支持RSA与Ed25519");
+    }
+
+    /**
+     * 解析X.509公钥
+     */
+    static PublicKey publicKey(String pem) {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(decode(pem));
+        for (String algorithm : ALGORITHMS) {
+            try {
+                return KeyFactory.getInstance(algorithm).generatePublic(spec);
+            } catch (GeneralSecurityException ignored) {
+                // 尝试下一种算法
+            }
+        }
+        throw new IllegalArgumentException("无法解析公钥，仅支持RSA与Ed25519");
+    }
+
+    private static byte[] decode(String pem) {
+        String base64 = pem.replaceAll("-----(BEGIN|END) [A-Z ]+-----", "").replaceAll("\\s", "");
+        return Base64.getDecoder().decode(base64);
+    }
+}
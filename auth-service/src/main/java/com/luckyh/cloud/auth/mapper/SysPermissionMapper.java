@@ -0,0 +1,21 @@
+package com.luckyh.cloud.auth.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.luckyh.cloud.auth.entity.SysPermission;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 权限Mapper接口
+ */
+@Mapper
+public interface SysPermissionMapper extends BaseMapper<SysPermission> {
+
+    /**
+     * 获取所有启用的权限ID与编码
+     */
+    @Select("SELECT id, permission_code FROM sys_permission WHERE status = 1 ORDER BY id")
+    List<SysPermission> selectActivePermissions();
+}
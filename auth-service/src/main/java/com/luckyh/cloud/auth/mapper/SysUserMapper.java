@@ -3,7 +3,11 @@ package com.luckyh.cloud.auth.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.luckyh.cloud.auth.entity.SysUser;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.ResultType;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
@@ -29,4 +33,18 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
             "INNER JOIN sys_user_role ur ON rp.role_id = ur.role_id " +
             "WHERE ur.user_id = #{userId} AND p.status = 1")
     List<String> selectPermissionsByUserId(Long userId);
+
+    /**
+     * 获取所有非启用状态的用户ID
+     */
+    @Select("SELECT id FROM sys_user WHERE status <> 1")
+    List<Long> selectDisabledUserIds();
+
+    /**
+     * 流式读取所有用户名（包括已逻辑删除的用户，其用户名仍占用唯一索引）
+     */
+    @Select("SELECT username FROM sys_user")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(String.class)
+    void scanUsernames(ResultHandler<String> handler);
 }
@@ -0,0 +1,109 @@
+package com.luckyh.cloud.auth.password;
+
+import com.luckyh.cloud.auth.config.PasswordEncoderProperties;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt强度调优
+ * <p>
+ * 启动时以最小强度实测一次哈希耗时，BCrypt强度每加1耗时翻倍，据此推算不超过目标耗时的最大强度。
+ * 只实测一次，避免高强度试算拖慢启动。
+ * <p>
+ * 各实例硬件不同时实测结果可能不同，自动选择的强度通过Redis在集群内统一：首个实例写入实测结果，
+ * 其余实例直接采用，所有实例以同一强度签发和升级哈希。更换硬件后删除该键即可重新实测。
+ */
+@Slf4j
+public final class BCryptCostTuner {
+
+    private static final int WARMUP_STRENGTH = 4;
+    private static final String SAMPLE_PASSWORD = "luckyh-cloud-bcrypt-cost-sample";
+
+    private BCryptCostTuner() {
+    }
+
+    /**
+     * 确定集群统一的BCrypt强度：固定配置优先，其次采用Redis中已有的强度，都没有时实测并写入Redis
+     * <p>
+     * Redis不可用时按本机实测结果，只会使新哈希强度不同，登录升级只提高强度，不会反复重算。
+     * Redis中的强度超出min-strength~max-strength时按边界截断，避免手工写错的值把强度降得过低或高到拖垮登录。
+     */
+    public static int resolve(PasswordEncoderProperties properties, StringRedisTemplate redisTemplate) {
+        if (properties.getStrength() > 0) {
+            return properties.getStrength();
+        }
+        try {
+            Integer shared = parse(redisTemplate.opsForValue().get(RedisConstants.BCRYPT_STRENGTH_KEY), properties);
+            if (shared != null) {
+                log.info("采用集群BCrypt强度{}", shared);
+                return shared;
+            }
+        } catch (RuntimeException e) {
+            log.warn("读取集群BCrypt强度失败，按本机实测选择：{}", e.getMessage());
+            return tune(properties);
+        }
+
+        int tuned = tune(properties);
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                    .setIfAbsent(RedisConstants.BCRYPT_STRENGTH_KEY, String.valueOf(tuned)))) {
+                // 其他实例已先写入
+                Integer shared = parse(redisTemplate.opsForValue().get(RedisConstants.BCRYPT_STRENGTH_KEY), properties);
+                if (shared != null) {
+                    log.info("采用集群BCrypt强度{}", shared);
+                    return shared;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("写入集群BCrypt强度失败，使用本机实测强度{}：{}", tuned, e.getMessage());
+        }
+        return tuned;
+    }
+
+    /**
+     * 计算BCrypt强度
+     */
+    public static int tune(PasswordEncoderProperties properties) {
+        if (properties.getStrength() > 0) {
+            return properties.getStrength();
+        }
+        int minStrength = properties.getMinStrength();
+        new BCryptPasswordEncoder(WARMUP_STRENGTH).encode(SAMPLE_PASSWORD);
+
+        long start = System.nanoTime();
+        new BCryptPasswordEncoder(minStrength).encode(SAMPLE_PASSWORD);
+        long minNanos = Math.max(1, System.nanoTime() - start);
+
+        long targetNanos = properties.getTargetVerifyTime().toNanos();
+        int strength = minStrength;
+        long estimated = minNanos;
+        while (strength < properties.getMaxStrength() && estimated * 2 <= targetNanos) {
+            strength++;
+            estimated *= 2;
+        }
+        log.info("BCrypt强度{}实测耗时{}ms，目标{}ms，选择强度{}（预计{}ms）", minStrength, minNanos / 1_000_000,
+                properties.getTargetVerifyTime().toMillis(), strength, estimated / 1_000_000);
+        return strength;
+    }
+
+    private static Integer parse(String value, PasswordEncoderProperties properties) {
+        if (value == null) {
+            return null;
+        }
+        int strength;
+        try {
+            strength = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的集群BCrypt强度: {}", value);
+            return null;
+        }
+        int clamped = Math.min(properties.getMaxStrength(), Math.max(properties.getMinStrength(), strength));
+        if (clamped != strength) {
+            log.warn("集群BCrypt强度{}超出配置范围{}~{}，按{}使用", strength,
+                    properties.getMinStrength(), properties.getMaxStrength(), clamped);
+        }
+        return clamped;
+    }
+}
@@ -0,0 +1,7 @@
+package com.luckyh.cloud.auth.password;
+
+/**
+ * 当前使用的BCrypt强度，启动时由{@link BCryptCostTuner}确定
+ */
+public record BCryptStrength(int value) {
+}
@@ -0,0 +1,97 @@
+package com.luckyh.cloud.auth.password;
+
+import com.luckyh.cloud.auth.config.LoginProtectionProperties;
+import com.luckyh.cloud.auth.exception.LoginThrottledException;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.redis.RedisUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 按用户名的登录失败限流
+ * <p>
+ * 连续失败次数记录在Redis（login:fail:用户名），窗口从第一次失败开始计算；达到上限后在窗口剩余时间内
+ * 直接拒绝该用户名的登录，不再执行BCrypt，撞库请求因此不消耗密码校验线程。登录成功后清零。
+ * 计数递增与设置窗口在Lua脚本中原子执行，不会留下没有过期时间的计数。Redis不可用时不限流。
+ */
+@Slf4j
+@Component
+public class LoginFailureThrottle {
+
+    private static final RedisScript<Long> INCR_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/login_failure_incr.lua"), Long.class);
+
+    private final RedisUtils redisUtils;
+    private final StringRedisTemplate redisTemplate;
+    private final LoginProtectionProperties properties;
+
+    public LoginFailureThrottle(RedisUtils redisUtils,
+                                StringRedisTemplate redisTemplate,
+                                LoginProtectionProperties properties) {
+        this.redisUtils = redisUtils;
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * 检查用户名是否已被锁定
+     *
+     * @return 当前连续失败次数
+     * @throws LoginThrottledException 失败次数已达上限
+     */
+    public long check(String username) {
+        String key = key(username);
+        long failures;
+        try {
+            String value = redisUtils.get(key);
+            failures = value != null ? Long.parseLong(value) : 0;
+        } catch (RuntimeException e) {
+            log.warn("读取登录失败次数失败，用户名：{}，原因：{}", username, e.getMessage());
+            return 0;
+        }
+        if (failures >= properties.getMaxFailures()) {
+            long ttl;
+            try {
+                ttl = redisUtils.getExpire(key);
+            } catch (RuntimeException e) {
+                log.warn("读取登录锁定剩余时间失败，用户名：{}，原因：{}", username, e.getMessage());
+                return failures;
+            }
+            throw new LoginThrottledException("登录失败次数过多，请稍后重试",
+                    ttl > 0 ? ttl : properties.getFailureWindow().toSeconds());
+        }
+        return failures;
+    }
+
+    /**
+     * 记录一次登录失败
+     */
+    public void recordFailure(String username) {
+        try {
+            redisTemplate.execute(INCR_SCRIPT, List.of(key(username)),
+                    String.valueOf(properties.getFailureWindow().toSeconds()));
+        } catch (RuntimeException e) {
+            log.warn("记录登录失败次数失败，用户名：{}，原因：{}", username, e.getMessage());
+        }
+    }
+
+    /**
+     * 登录成功后清除失败次数
+     */
+    public void reset(String username) {
+        try {
+            redisUtils.del(key(username));
+        } catch (RuntimeException e) {
+            log.warn("清除登录失败次数失败，用户名：{}，原因：{}", username, e.getMessage());
+        }
+    }
+
+    private static String key(String username) {
+        return RedisConstants.LOGIN_FAIL_PREFIX + username;
+    }
+}
@@ -0,0 +1,83 @@
+package com.luckyh.cloud.auth.password;
+
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.luckyh.cloud.auth.config.PasswordEncoderProperties;
+import com.luckyh.cloud.auth.config.SecurityConfig;
+import com.luckyh.cloud.auth.entity.SysUser;
+import com.luckyh.cloud.auth.mapper.SysUserMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 密码哈希升级
+ * <p>
+ * 登录成功时明文密码已知，若库中哈希不是当前默认格式（{bcrypt}前缀）或BCrypt强度低于当前强度，
+ * 在密码哈希线程池中重新计算并写回。只升不降：强度更高的哈希保持不变，避免强度不一致的实例之间反复重算。
+ * 升级是尽力而为：线程池繁忙时跳过，下次登录再升级；写回以原哈希为条件，不会覆盖期间修改过的密码。
+ */
+@Slf4j
+@Component
+public class PasswordHashUpgrader {
+
+    private static final String ENCODE_ID_PREFIX = "{" + SecurityConfig.PASSWORD_ENCODE_ID + "}";
+
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final SysUserMapper sysUserMapper;
+    private final PasswordEncoderProperties properties;
+    private final int strength;
+
+    public PasswordHashUpgrader(PasswordHashingExecutor passwordHashingExecutor,
+                                SysUserMapper sysUserMapper,
+                                PasswordEncoderProperties properties,
+                                BCryptStrength bcryptStrength) {
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.sysUserMapper = sysUserMapper;
+        this.properties = properties;
+        this.strength = bcryptStrength.value();
+    }
+
+    /**
+     * 哈希是否需要升级：缺少编码ID前缀，或BCrypt强度低于当前强度
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        if (!encodedPassword.startsWith(ENCODE_ID_PREFIX)) {
+            return true;
+        }
+        return bcryptCost(encodedPassword.substring(ENCODE_ID_PREFIX.length())) < strength;
+    }
+
+    /**
+     * 登录成功后按需升级密码哈希
+     */
+    public void upgradeIfNeeded(Long userId, String rawPassword, String encodedPassword) {
+        if (!properties.isUpgradeOnLogin() || !needsUpgrade(encodedPassword)) {
+            return;
+        }
+        boolean submitted = passwordHashingExecutor.tryEncodeAsync(rawPassword, upgraded -> {
+            LambdaUpdateWrapper<SysUser> updateWrapper = new LambdaUpdateWrapper<>();
+            updateWrapper.set(SysUser::getPassword, upgraded)
+                    .eq(SysUser::getId, userId)
+                    .eq(SysUser::getPassword, encodedPassword);
+            if (sysUserMapper.update(null, updateWrapper) > 0) {
+                log.info("用户密码哈希已升级，用户ID：{}", userId);
+            }
+        });
+        if (!submitted) {
+            log.debug("密码哈希线程池繁忙，跳过升级，用户ID：{}", userId);
+        }
+    }
+
+    /**
+     * 解析BCrypt哈希（$2a$10$...）中的强度，无法解析时返回-1
+     */
+    private static int bcryptCost(String hash) {
+        if (hash.length() < 7 || hash.charAt(0) != '$' || hash.charAt(3) != '$' || hash.charAt(6) != '$') {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.luckyh.cloud.auth.password;
+
+import com.luckyh.cloud.auth.config.LoginProtectionProperties;
+import com.luckyh.cloud.auth.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 密码哈希执行器
+ * <p>
+ * BCrypt刻意消耗CPU，直接在Tomcat工作线程上执行时，登录洪峰会占满CPU与工作线程，拖慢/auth/validate、/auth/refresh等轻量接口。
+ * 这里把密码校验与加密交给固定线程数、有界队列的专用线程池：CPU占用被限制在hashThreads个核以内，
+ * 队列满或等待超时时立即以{@link LoginThrottledException}拒绝，不再排队。
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    private static final String EXECUTOR_NAME = "authPasswordHashing";
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder passwordEncoder;
+    private final LoginProtectionProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder,
+                                   LoginProtectionProperties properties,
+                                   MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        int threads = properties.getHashThreads() > 0
+                ? properties.getHashThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getHashQueueCapacity()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, EXECUTOR_NAME);
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("密码校验因线程池已满或超时被拒绝的次数")
+                .register(meterRegistry);
+        log.info("密码哈希线程池已创建，线程数：{}，队列上限：{}", threads, properties.getHashQueueCapacity());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 校验密码
+     *
+     * @throws LoginThrottledException 线程池已满或等待超时
+     */
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 加密密码
+     *
+     * @throws LoginThrottledException 线程池已满或等待超时
+     */
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 尽力而为地异步加密密码，线程池已满时不提交
+     *
+     * @return 是否已提交
+     */
+    public boolean tryEncodeAsync(CharSequence rawPassword, Consumer<String> callback) {
+        try {
+            executor.execute(() -> {
+                try {
+                    callback.accept(passwordEncoder.encode(rawPassword));
+                } catch (RuntimeException e) {
+                    log.warn("异步密码哈希失败：{}", e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new LoginThrottledException("请求过多，请稍后重试", RETRY_AFTER_SECONDS);
+        }
+        try {
+            return future.get(properties.getHashTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new LoginThrottledException("请求过多，请稍后重试", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码哈希被中断", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("密码哈希失败", e.getCause());
+        }
+    }
+}
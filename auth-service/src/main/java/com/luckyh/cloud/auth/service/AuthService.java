@@ -41,6 +41,14 @@ public interface AuthService {
      */
     boolean logout(String token);
 
+    /**
+     * 退出所有设备
+     *
+     * @param token 访问令牌
+     * @return 是否成功
+     */
+    boolean logoutAll(String token);
+
     /**
      * 验证令牌
      *
@@ -3,20 +3,37 @@ package com.luckyh.cloud.auth.service.impl;
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
+import com.luckyh.cloud.auth.cache.DisabledUserRegistry;
+import com.luckyh.cloud.auth.cache.PermissionTableHolder;
+import com.luckyh.cloud.auth.cache.RefreshTokenStore;
+import com.luckyh.cloud.auth.cache.TokenBlacklist;
+import com.luckyh.cloud.auth.cache.TokenEpochCache;
+import com.luckyh.cloud.auth.cache.UserAuthority;
+import com.luckyh.cloud.auth.cache.UserAuthorityCache;
+import com.luckyh.cloud.auth.cache.UsernameFilter;
+import com.luckyh.cloud.auth.config.TokenValidationProperties;
 import com.luckyh.cloud.auth.dto.LoginDTO;
 import com.luckyh.cloud.auth.dto.RegisterDTO;
 import com.luckyh.cloud.auth.entity.SysUser;
 import com.luckyh.cloud.auth.entity.SysUserRole;
 import com.luckyh.cloud.auth.mapper.SysUserMapper;
 import com.luckyh.cloud.auth.mapper.SysUserRoleMapper;
+import com.luckyh.cloud.auth.password.LoginFailureThrottle;
+import com.luckyh.cloud.auth.password.PasswordHashUpgrader;
+import com.luckyh.cloud.auth.password.PasswordHashingExecutor;
 import com.luckyh.cloud.auth.service.AuthService;
+import com.luckyh.cloud.common.web.DecodedToken;
 import com.luckyh.cloud.common.web.JwtUtils;
+import com.luckyh.cloud.common.web.TokenClaims;
+import com.luckyh.cloud.common.web.permission.PermissionChecker;
+import com.luckyh.cloud.common.web.permission.PermissionTable;
 import com.luckyh.cloud.common.redis.RedisUtils;
 import com.luckyh.cloud.auth.vo.LoginVO;
 import jakarta.annotation.Resource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -42,10 +59,33 @@ public class AuthServiceImpl implements AuthService {
     @Resource
     private RedisUtils redisUtils;
     @Resource
-    private PasswordEncoder passwordEncoder;
+    private UserAuthorityCache userAuthorityCache;
+    @Resource
+    private PermissionTableHolder permissionTableHolder;
+    @Resource
+    private DisabledUserRegistry disabledUserRegistry;
+    @Resource
+    private TokenValidationProperties tokenValidationProperties;
+    @Resource
+    private TokenBlacklist tokenBlacklist;
+    @Resource
+    private PasswordHashingExecutor passwordHashingExecutor;
+    @Resource
+    private LoginFailureThrottle loginFailureThrottle;
+    @Resource
+    private PasswordHashUpgrader passwordHashUpgrader;
+    @Resource
+    private RefreshTokenStore refreshTokenStore;
+    @Resource
+    private TokenEpochCache tokenEpochCache;
+    @Resource
+    private UsernameFilter usernameFilter;
 
     @Override
     public LoginVO login(LoginDTO loginDTO) {
+        // 失败次数过多的用户名直接拒绝，不执行密码校验
+        long failures = loginFailureThrottle.check(loginDTO.getUsername());
+
         // 查询用户
         LambdaQueryWrapper<SysUser> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(SysUser::getUsername, loginDTO.getUsername())
@@ -53,20 +93,31 @@ public class AuthServiceImpl implements AuthService {
         SysUser sysUser = sysUserMapper.selectOne(queryWrapper);
 
         if (sysUser == null) {
+            loginFailureThrottle.recordFailure(loginDTO.getUsername());
             throw new RuntimeException("用户不存在或已被禁用");
         }
 
-        // 验证密码
-        if (!passwordEncoder.matches(loginDTO.getPassword(), sysUser.getPassword())) {
+        // 验证密码，在专用线程池中执行，线程池已满时抛出LoginThrottledException
+        if (!passwordHashingExecutor.matches(loginDTO.getPassword(), sysUser.getPassword())) {
+            loginFailureThrottle.recordFailure(loginDTO.getUsername());
             throw new RuntimeException("用户名或密码错误");
         }
+        if (failures > 0) {
+            loginFailureThrottle.reset(loginDTO.getUsername());
+        }
 
-        // 更新登录时间
+        // 更新登录时间，只更新该列，避免用读到的旧密码哈希覆盖后台升级的结果
         sysUser.setLastLoginTime(LocalDateTime.now());
-        sysUserMapper.updateById(sysUser);
+        LambdaUpdateWrapper<SysUser> updateWrapper = new LambdaUpdateWrapper<>();
+        updateWrapper.set(SysUser::getLastLoginTime, sysUser.getLastLoginTime())
+                .eq(SysUser::getId, sysUser.getId());
+        sysUserMapper.update(null, updateWrapper);
 
-        // 生成令牌
-        return generateLoginVO(sysUser);
+        // 旧格式或强度不同的哈希在后台重新计算
+        passwordHashUpgrader.upgradeIfNeeded(sysUser.getId(), loginDTO.getPassword(), sysUser.getPassword());
+
+        // 生成令牌，每次登录创建新的刷新令牌族
+        return generateLoginVO(sysUser, refreshTokenStore.create(sysUser.getId(), jwtUtils.getRefreshExpiration()));
     }
 
     @Override
@@ -77,37 +128,39 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("两次输入的密码不一致");
         }
 
-        // 检查用户名是否存在
-        LambdaQueryWrapper<SysUser> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(SysUser::getUsername, registerDTO.getUsername());
-        if (sysUserMapper.selectCount(queryWrapper) > 0) {
-            throw new RuntimeException("用户名已存在");
-        }
-
-        // 检查邮箱是否存在
-        if (StrUtil.isNotBlank(registerDTO.getEmail())) {
-            queryWrapper = new LambdaQueryWrapper<>();
-            queryWrapper.eq(SysUser::getEmail, registerDTO.getEmail());
+        // 用户名与邮箱的唯一性由uk_username、uk_email保证；布隆过滤器判定用户名可能已存在时，
+        // 在计算密码哈希前查询一次数据库尽早拒绝，其余情况直接插入
+        if (usernameFilter.mightExist(registerDTO.getUsername())) {
+            LambdaQueryWrapper<SysUser> queryWrapper = new LambdaQueryWrapper<>();
+            queryWrapper.eq(SysUser::getUsername, registerDTO.getUsername());
             if (sysUserMapper.selectCount(queryWrapper) > 0) {
-                throw new RuntimeException("邮箱已被注册");
+                throw new RuntimeException("用户名已存在");
             }
         }
 
         // 创建用户
         SysUser sysUser = new SysUser();
         BeanUtil.copyProperties(registerDTO, sysUser);
-        sysUser.setPassword(passwordEncoder.encode(registerDTO.getPassword()));
+        // 空邮箱存为NULL，避免多个空字符串触发uk_email
+        sysUser.setEmail(StrUtil.emptyToNull(StrUtil.trim(registerDTO.getEmail())));
+        sysUser.setPassword(passwordHashingExecutor.encode(registerDTO.getPassword()));
         sysUser.setStatus(1);
         sysUser.setCreateTime(LocalDateTime.now());
         sysUser.setUpdateTime(LocalDateTime.now());
 
-        int result = sysUserMapper.insert(sysUser);
+        int result;
+        try {
+            result = sysUserMapper.insert(sysUser);
+        } catch (DuplicateKeyException e) {
+            throw new RuntimeException(isEmailConflict(e) ? "邮箱已被注册" : "用户名已存在");
+        }
         if (result > 0) {
             // 分配默认角色（普通用户角色ID为2）
             SysUserRole userRole = new SysUserRole();
             userRole.setUserId(sysUser.getId());
             userRole.setRoleId(registerDTO.getUserType() == 1 ? 1L : 2L);
             sysUserRoleMapper.insert(userRole);
+            usernameFilter.registered(registerDTO.getUsername());
 
             log.info("用户注册成功，用户ID：{}", sysUser.getId());
             return true;
@@ -119,13 +172,19 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public LoginVO refreshToken(String refreshToken) {
-        // 验证刷新令牌
-        if (!jwtUtils.validateToken(refreshToken)) {
+        // 验证刷新令牌，只解析一次
+        DecodedToken decoded = jwtUtils.decode(refreshToken);
+        if (decoded == null) {
             throw new RuntimeException("刷新令牌无效或已过期");
         }
+        // 访问令牌不能用于刷新；不带令牌族的旧刷新令牌无法检测重复使用，需要重新登录
+        if (!decoded.isRefreshToken() || decoded.getFamilyId() == null
+                || decoded.getSequence() == null || decoded.getEpoch() == null) {
+            throw new RuntimeException("刷新令牌无效，请重新登录");
+        }
 
-        String username = jwtUtils.getUsernameFromToken(refreshToken);
-        Long userId = jwtUtils.getUserIdFromToken(refreshToken);
+        String username = decoded.getUsername();
+        Long userId = decoded.getUserId();
 
         // 查询用户
         SysUser sysUser = sysUserMapper.selectById(userId);
@@ -133,18 +192,25 @@ public class AuthServiceImpl implements AuthService {
             throw new RuntimeException("用户不存在");
         }
 
+        // 轮换刷新令牌，旧刷新令牌被重复使用时整个令牌族失效
+        RefreshTokenStore.Family family = refreshTokenStore.rotate(userId, decoded.getFamilyId(),
+                decoded.getSequence(), decoded.getEpoch(), jwtUtils.getRefreshExpiration());
+
         // 生成新的令牌
-        return generateLoginVO(sysUser);
+        return generateLoginVO(sysUser, family);
     }
 
     @Override
     public boolean logout(String token) {
         try {
-            // 将令牌加入黑名单
-            String username = jwtUtils.getUsernameFromToken(token);
-            if (StrUtil.isNotBlank(username)) {
+            // 将令牌加入黑名单，并吊销同一次登录的刷新令牌族
+            DecodedToken decoded = jwtUtils.decode(token);
+            if (decoded != null && StrUtil.isNotBlank(decoded.getUsername())) {
                 redisUtils.addTokenToBlacklist(token, jwtUtils.getExpiration());
-                log.info("用户 {} 退出登录成功", username);
+                if (decoded.getFamilyId() != null) {
+                    refreshTokenStore.revoke(decoded.getUserId(), decoded.getFamilyId());
+                }
+                log.info("用户 {} 退出登录成功", decoded.getUsername());
                 return true;
             }
         } catch (Exception e) {
@@ -153,19 +219,52 @@ public class AuthServiceImpl implements AuthService {
         return false;
     }
 
+    @Override
+    public boolean logoutAll(String token) {
+        DecodedToken decoded = jwtUtils.decode(token);
+        if (decoded == null || decoded.isRefreshToken()) {
+            return false;
+        }
+        // 递增令牌纪元并删除全部刷新令牌族，已签发的访问令牌（包括当前令牌）随纪元校验失效，无需写黑名单
+        long epoch = refreshTokenStore.revokeAll(decoded.getUserId());
+        tokenEpochCache.publish(decoded.getUserId(), epoch);
+        log.info("用户 {} 已退出所有设备，令牌纪元：{}", decoded.getUsername(), epoch);
+        return true;
+    }
+
     @Override
     public LoginVO.UserInfo validateToken(String token) {
-        // 检查令牌是否在黑名单中
-        if (redisUtils.isTokenInBlacklist(token)) {
+        // 检查令牌是否在黑名单中，布隆过滤器判定不存在时不查询Redis
+        if (tokenBlacklist.isRevoked(token)) {
             throw new RuntimeException("令牌已失效");
         }
 
-        // 验证令牌
-        if (!jwtUtils.validateToken(token)) {
+        // 验证令牌，签名或有效期校验失败时返回null
+        DecodedToken decoded = jwtUtils.decode(token);
+        if (decoded == null || decoded.isRefreshToken()) {
             throw new RuntimeException("令牌无效或已过期");
         }
 
-        Long userId = jwtUtils.getUserIdFromToken(token);
+        Long userId = decoded.getUserId();
+        // 令牌纪元早于用户当前纪元说明已退出所有设备
+        if (tokenEpochCache.isStale(userId, decoded.getEpoch())) {
+            throw new RuntimeException("令牌已失效");
+        }
+
+        if (tokenValidationProperties.isStateless()) {
+            // 信任令牌中的用户信息，用户状态只查禁用用户位图
+            if (disabledUserRegistry.isDisabled(userId)) {
+                throw new RuntimeException("用户不存在或已被禁用");
+            }
+            LoginVO.UserInfo userInfo = new LoginVO.UserInfo();
+            userInfo.setId(userId);
+            userInfo.setUsername(decoded.getUsername());
+            userInfo.setRealName(decoded.getRealName());
+            userInfo.setUserType(decoded.getUserType());
+            userInfo.setRoles(decoded.getRoles());
+            return userInfo;
+        }
+
         SysUser sysUser = sysUserMapper.selectById(userId);
 
         if (sysUser == null || sysUser.getStatus() != 1) {
@@ -174,26 +273,48 @@ public class AuthServiceImpl implements AuthService {
 
         LoginVO.UserInfo userInfo = new LoginVO.UserInfo();
         BeanUtil.copyProperties(sysUser, userInfo);
+        userInfo.setRoles(userAuthorityCache.get(userId).getRoles());
         return userInfo;
     }
 
+    /**
+     * 唯一索引冲突是否来自uk_email，MySQL错误信息形如"Duplicate entry 'x' for key 'sys_user.uk_email'"
+     */
+    private static boolean isEmailConflict(DuplicateKeyException e) {
+        Throwable cause = e.getMostSpecificCause();
+        return cause.getMessage() != null && cause.getMessage().contains("uk_email");
+    }
+
     /**
      * 生成登录响应
      */
-    private LoginVO generateLoginVO(SysUser sysUser) {
+    private LoginVO generateLoginVO(SysUser sysUser, RefreshTokenStore.Family family) {
         // 获取用户角色和权限
-        List<String> roles = sysUserMapper.selectRoleCodesByUserId(sysUser.getId());
-        List<String> permissions = sysUserMapper.selectPermissionsByUserId(sysUser.getId());
+        UserAuthority authority = userAuthorityCache.get(sysUser.getId());
+        List<String> roles = authority.getRoles();
+        List<String> permissions = authority.getPermissions();
 
         // 构建JWT Claims
         Map<String, Object> claims = new HashMap<>();
+        claims.put("realName", sysUser.getRealName());
         claims.put("userType", sysUser.getUserType());
         claims.put("roles", roles);
-        claims.put("permissions", permissions);
+        // 权限以位集形式携带，并附带权限表版本号用于识别权限表变更前签发的令牌
+        PermissionTable permissionTable = permissionTableHolder.getTable();
+        claims.put(PermissionChecker.CLAIM_PERMISSIONS,
+                PermissionTableHolder.toBits(permissionTable, permissions).encode());
+        claims.put(PermissionChecker.CLAIM_PERMISSION_VERSION, permissionTable.getVersion());
+        claims.put(TokenClaims.FAMILY, family.familyId());
+        claims.put(TokenClaims.EPOCH, family.epoch());
+
+        Map<String, Object> refreshClaims = new HashMap<>();
+        refreshClaims.put(TokenClaims.FAMILY, family.familyId());
+        refreshClaims.put(TokenClaims.SEQUENCE, family.sequence());
+        refreshClaims.put(TokenClaims.EPOCH, family.epoch());
 
         // 生成令牌
         String accessToken = jwtUtils.generateToken(sysUser.getUsername(), sysUser.getId(), claims);
-        String refreshToken = jwtUtils.generateRefreshToken(sysUser.getUsername(), sysUser.getId());
+        String refreshToken = jwtUtils.generateRefreshToken(sysUser.getUsername(), sysUser.getId(), refreshClaims);
 
         // 构建响应
         LoginVO loginVO = new LoginVO();
@@ -206,6 +327,7 @@ public class AuthServiceImpl implements AuthService {
         // 用户信息
         LoginVO.UserInfo userInfo = new LoginVO.UserInfo();
         BeanUtil.copyProperties(sysUser, userInfo);
+        userInfo.setRoles(roles);
         loginVO.setUserInfo(userInfo);
 
         return loginVO;
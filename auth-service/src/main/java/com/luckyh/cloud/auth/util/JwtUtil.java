@@ -1,8 +1,10 @@
 package com.luckyh.cloud.auth.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -28,6 +30,21 @@ public class JwtUtil {
     @Value("${jwt.refresh-expiration:604800}")
     private Long refreshExpiration;
 
+    private SecretKey signKey;
+
+    private JwtParser jwtParser;
+
+    /**
+     * 构建签名密钥与解析器，之后复用
+     */
+    @PostConstruct
+    public void init() {
+        this.signKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signKey)
+                .build();
+    }
+
     /**
      * 生成JWT令牌
      */
@@ -41,7 +58,7 @@ public class JwtUtil {
                 .claims(claims)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
@@ -58,7 +75,7 @@ public class JwtUtil {
                 .claim("type", "refresh")
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSignKey())
+                .signWith(signKey)
                 .compact();
     }
 
@@ -87,13 +104,9 @@ public class JwtUtil {
      */
     public Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSignKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
-            log.warn("获取token信息失败: {}", e.getMessage());
+            log.debug("获取token信息失败: {}", e.getMessage());
             return null;
         }
     }
@@ -119,14 +132,6 @@ public class JwtUtil {
         return expiration.before(new Date());
     }
 
-    /**
-     * 获取签名密钥
-     */
-    private SecretKey getSignKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     /**
      * 获取令牌过期时间
      */
@@ -59,5 +59,9 @@ public class LoginVO {
         private String avatar;
         private Integer userType;
         private LocalDateTime lastLoginTime;
+        /**
+         * 角色编码，网关远程校验令牌时据此匹配ROLE策略
+         */
+        private List<String> roles;
     }
 }
@@ -0,0 +1,10 @@
+-- 记录一次登录失败
+-- KEYS[1]: 用户名的连续失败次数
+-- ARGV[1]: 失败窗口（秒），从第一次失败开始计算
+-- 返回: 当前连续失败次数
+local failures = redis.call('INCR', KEYS[1])
+-- 第一次失败时设置窗口；没有过期时间的计数（如旧版本INCR后EXPIRE未执行）同样补上，避免永久锁定
+if failures == 1 or redis.call('TTL', KEYS[1]) < 0 then
+    redis.call('EXPIRE', KEYS[1], ARGV[1])
+end
+return failures
@@ -0,0 +1,22 @@
+-- 创建刷新令牌族
+-- KEYS[1]: 用户的刷新令牌族（hash结构，字段为族ID，值为"序号:最近轮换时间（秒）"）
+-- KEYS[2]: 用户的令牌纪元
+-- ARGV[1]: 新族ID
+-- ARGV[2]: 当前时间（秒）
+-- ARGV[3]: 刷新令牌有效期（秒）
+-- 返回: 当前令牌纪元
+local now = tonumber(ARGV[2])
+local ttl = tonumber(ARGV[3])
+
+-- 清除超过有效期未轮换的族，刷新令牌已过期，无需保留
+local families = redis.call('HGETALL', KEYS[1])
+for i = 1, #families, 2 do
+    local rotatedAt = tonumber(string.match(families[i + 1], ':(%d+)$')) or 0
+    if now - rotatedAt > ttl then
+        redis.call('HDEL', KEYS[1], families[i])
+    end
+end
+
+redis.call('HSET', KEYS[1], ARGV[1], '1:' .. now)
+redis.call('EXPIRE', KEYS[1], ttl)
+return tonumber(redis.call('GET', KEYS[2]) or '0')
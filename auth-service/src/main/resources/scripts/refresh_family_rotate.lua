@@ -0,0 +1,35 @@
+-- 轮换刷新令牌
+-- KEYS[1]: 用户的刷新令牌族（hash结构，字段为族ID，值为"序号:最近轮换时间（秒）"）
+-- KEYS[2]: 用户的令牌纪元
+-- ARGV[1]: 族ID
+-- ARGV[2]: 令牌中的序号
+-- ARGV[3]: 令牌中的纪元
+-- ARGV[4]: 当前时间（秒）
+-- ARGV[5]: 刷新令牌有效期（秒）
+-- ARGV[6]: 并发刷新宽限时间（秒），上一序号的令牌在轮换后该时间内再次使用时返回当前序号，不吊销令牌族
+-- 返回: 新序号（宽限期内为当前序号）；-1表示族不存在（已吊销或过期），-2表示令牌被重复使用（整个族已吊销），-3表示纪元已变更
+local epoch = redis.call('GET', KEYS[2]) or '0'
+if epoch ~= ARGV[3] then
+    return -3
+end
+
+local value = redis.call('HGET', KEYS[1], ARGV[1])
+if not value then
+    return -1
+end
+
+local sequence, rotatedAt = string.match(value, '^(%d+):(%d+)$')
+if sequence ~= ARGV[2] then
+    -- 并发刷新：另一个请求刚用同一令牌完成轮换
+    if sequence and tonumber(ARGV[2]) == tonumber(sequence) - 1
+            and tonumber(ARGV[4]) - tonumber(rotatedAt) <= tonumber(ARGV[6]) then
+        return tonumber(sequence)
+    end
+    redis.call('HDEL', KEYS[1], ARGV[1])
+    return -2
+end
+
+local next = tonumber(sequence) + 1
+redis.call('HSET', KEYS[1], ARGV[1], next .. ':' .. ARGV[4])
+redis.call('EXPIRE', KEYS[1], tonumber(ARGV[5]))
+return next
@@ -0,0 +1,34 @@
+package com.luckyh.cloud.auth.password;
+
+import com.luckyh.cloud.auth.config.PasswordEncoderProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 密码哈希升级判定测试
+ */
+class PasswordHashUpgraderTest {
+
+    private static final String SALT_AND_HASH = "N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    private final PasswordHashUpgrader upgrader =
+            new PasswordHashUpgrader(null, null, new PasswordEncoderProperties(), new BCryptStrength(12));
+
+    @Test
+    void unprefixedHashNeedsUpgrade() {
+        assertTrue(upgrader.needsUpgrade("$2a$12$" + SALT_AND_HASH));
+    }
+
+    @Test
+    void lowerCostNeedsUpgrade() {
+        assertTrue(upgrader.needsUpgrade("{bcrypt}$2a$10$" + SALT_AND_HASH));
+    }
+
+    @Test
+    void currentOrHigherCostIsKept() {
+        assertFalse(upgrader.needsUpgrade("{bcrypt}$2a$12$" + SALT_AND_HASH));
+        assertFalse(upgrader.needsUpgrade("{bcrypt}$2a$13$" + SALT_AND_HASH));
+    }
+}
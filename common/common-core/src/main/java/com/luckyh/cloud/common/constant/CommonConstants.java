@@ -42,6 +42,31 @@ public class CommonConstants {
      */
     public static final int NOT_FOUND_CODE = 404;
 
+    /**
+     * 请求头 - 用户ID（由网关根据令牌注入）
+     */
+    public static final String HEADER_USER_ID = "X-User-Id";
+
+    /**
+     * 请求头 - 用户名（由网关根据令牌注入）
+     */
+    public static final String HEADER_USERNAME = "X-Username";
+
+    /**
+     * 请求头 - 真实姓名（由网关根据令牌注入，UTF-8 URL编码）
+     */
+    public static final String HEADER_REAL_NAME = "X-Real-Name";
+
+    /**
+     * 请求头 - 用户类型（由网关根据令牌注入）
+     */
+    public static final String HEADER_USER_TYPE = "X-User-Type";
+
+    /**
+     * 请求头 - 服务间调用凭证（仅限内部接口，网关会清除客户端自带的该请求头）
+     */
+    public static final String HEADER_SERVICE_TOKEN = "X-Service-Token";
+
     /**
      * UTF-8编码
      */
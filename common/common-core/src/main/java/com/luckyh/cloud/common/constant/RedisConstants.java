@@ -13,10 +13,15 @@ public class RedisConstants {
     public static final String SEPARATOR = ":";
 
     /**
-     * Token黑名单前缀
+     * Token黑名单前缀，完整key为前缀 + 令牌的SHA-256十六进制摘要
      */
     public static final String TOKEN_BLACKLIST_PREFIX = "blacklist:token:";
 
+    /**
+     * Token吊销通知频道，消息内容为令牌的SHA-256十六进制摘要
+     */
+    public static final String TOKEN_REVOKE_CHANNEL = "channel:token:revoke";
+
     /**
      * 用户缓存前缀
      */
@@ -52,6 +57,87 @@ public class RedisConstants {
      */
     public static final String RATE_LIMIT_PREFIX = "rate:limit:";
 
+    /**
+     * 网关响应缓存前缀
+     */
+    public static final String GATEWAY_RESPONSE_PREFIX = "gateway:response:";
+
+    /**
+     * 网关响应缓存路径索引前缀，set中为同一路径下所有用户与查询参数的缓存键
+     */
+    public static final String GATEWAY_RESPONSE_INDEX_PREFIX = "gateway:response:index:";
+
+    /**
+     * 网关响应缓存失效通知频道，消息为被写操作修改的资源路径
+     */
+    public static final String GATEWAY_RESPONSE_EVICT_CHANNEL = "channel:gateway:response:evict";
+
+    /**
+     * 角色权限版本号，角色与权限的对应关系变更时递增，使所有用户的角色权限缓存失效
+     */
+    public static final String AUTHORITY_VERSION_KEY = "auth:authority:version";
+
+    /**
+     * 用户角色权限缓存前缀，完整key为前缀 + 用户ID + ":" + 版本号
+     */
+    public static final String USER_AUTHORITY_PREFIX = "auth:authority:user:";
+
+    /**
+     * 角色权限缓存失效通知频道，消息为用户ID，"*"表示版本号已递增
+     */
+    public static final String AUTHORITY_EVICT_CHANNEL = "channel:auth:authority:evict";
+
+    /**
+     * 用户状态变更通知频道，消息为"用户ID:状态"，状态0-禁用，1-启用
+     */
+    public static final String USER_STATUS_CHANNEL = "channel:auth:user:status";
+
+    /**
+     * 新用户注册通知频道，消息为规范化用户名的SHA-256十六进制摘要
+     */
+    public static final String USERNAME_REGISTERED_CHANNEL = "channel:auth:username:registered";
+
+    /**
+     * 用户刷新令牌族前缀，完整key见{@link #refreshFamilyKey(Long)}，hash结构，字段为族ID，值为"序号:最近轮换时间"
+     */
+    public static final String REFRESH_FAMILY_PREFIX = "auth:refresh:family:";
+
+    /**
+     * 用户令牌纪元前缀，完整key见{@link #tokenEpochKey(Long)}，退出所有设备时递增
+     */
+    public static final String TOKEN_EPOCH_PREFIX = "auth:token:epoch:";
+
+    /**
+     * 用户令牌纪元变更通知频道，消息为"用户ID:新纪元"
+     */
+    public static final String TOKEN_EPOCH_CHANNEL = "channel:auth:token:epoch";
+
+    /**
+     * 集群统一的BCrypt强度，由首个自动选择强度的auth-service实例写入，不过期
+     */
+    public static final String BCRYPT_STRENGTH_KEY = "auth:password:bcrypt-strength";
+
+    /**
+     * 权限表，内容为{"version": 版本号, "codes": {权限编码: 位序号}}
+     */
+    public static final String PERMISSION_TABLE_KEY = "auth:permission:table";
+
+    /**
+     * 用户刷新令牌族的key：前缀 + {用户ID}
+     * <p>
+     * 用户ID作为hash tag，与{@link #tokenEpochKey(Long)}落在同一Redis Cluster槽位，Lua脚本可同时访问两者
+     */
+    public static String refreshFamilyKey(Long userId) {
+        return REFRESH_FAMILY_PREFIX + "{" + userId + "}";
+    }
+
+    /**
+     * 用户令牌纪元的key：前缀 + {用户ID}
+     */
+    public static String tokenEpochKey(Long userId) {
+        return TOKEN_EPOCH_PREFIX + "{" + userId + "}";
+    }
+
     /**
      * 缓存空值，防止缓存穿透
      */
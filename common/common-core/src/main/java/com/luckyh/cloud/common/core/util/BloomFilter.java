@@ -0,0 +1,90 @@
+package com.luckyh.cloud.common.core.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 布隆过滤器
+ * <p>
+ * 以调用方提供的128位哈希（两个long）为输入，采用双重哈希生成k个位置，不再对元素重复计算哈希。
+ * 判定不存在时一定不存在，判定存在时有falsePositiveRate概率误判；不支持删除，元素过期后需整体重建。
+ * 并发添加与查询线程安全。
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.words = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    /**
+     * 按预期元素数与误判率创建
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("布隆过滤器参数无效");
+        }
+        long bitCount = Math.max(64, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate)
+                / (Math.log(2) * Math.log(2))));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    /**
+     * 添加元素
+     */
+    public void put(long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = words.get(word);
+            } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            combined += hash2;
+        }
+    }
+
+    /**
+     * 元素是否可能存在
+     */
+    public boolean mightContain(long hash1, long hash2) {
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((words.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash2;
+        }
+        return true;
+    }
+
+    /**
+     * 以SHA-256十六进制摘要的前128位作为哈希添加元素
+     */
+    public void putHex(String sha256Hex) {
+        put(Long.parseUnsignedLong(sha256Hex, 0, 16, 16), Long.parseUnsignedLong(sha256Hex, 16, 32, 16));
+    }
+
+    /**
+     * 以SHA-256十六进制摘要的前128位作为哈希判断元素是否可能存在
+     */
+    public boolean mightContainHex(String sha256Hex) {
+        return mightContain(Long.parseUnsignedLong(sha256Hex, 0, 16, 16), Long.parseUnsignedLong(sha256Hex, 16, 32, 16));
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    public int getHashCount() {
+        return hashCount;
+    }
+}
@@ -1,7 +1,11 @@
 package com.luckyh.cloud.common.redis;
 
+import cn.hutool.crypto.digest.DigestUtil;
+import com.luckyh.cloud.common.constant.RedisConstants;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
 
@@ -10,6 +14,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Redis工具类
@@ -608,18 +613,43 @@ public class RedisUtils {
         }
     }
 
+    // ============================Pub/Sub============================
+
+    /**
+     * 发布消息
+     * 
+     * @param channel 频道
+     * @param message 消息
+     * @return true成功 false失败
+     */
+    public boolean publish(String channel, String message) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, message);
+            return true;
+        } catch (Exception e) {
+            log.error("消息发布失败", e);
+            return false;
+        }
+    }
+
     // ============================Token管理============================
 
     /**
-     * 将Token加入黑名单
+     * 将Token加入黑名单，并通知各校验方更新布隆过滤器、清除该令牌的本地缓存
+     * <p>
+     * 黑名单以令牌的SHA-256十六进制摘要为键，吊销消息内容与之相同
      * 
      * @param token      令牌
      * @param expiration 过期时间(秒)
      * @return true成功 false失败
      */
     public boolean addTokenToBlacklist(String token, long expiration) {
-        String key = "blacklist:token:" + token;
-        return set(key, "1", expiration, TimeUnit.SECONDS);
+        String digest = DigestUtil.sha256Hex(token);
+        boolean result = set(RedisConstants.TOKEN_BLACKLIST_PREFIX + digest, "1", expiration, TimeUnit.SECONDS);
+        if (result) {
+            publish(RedisConstants.TOKEN_REVOKE_CHANNEL, digest);
+        }
+        return result;
     }
 
     /**
@@ -629,8 +659,17 @@ public class RedisUtils {
      * @return true在黑名单中 false不在黑名单中
      */
     public boolean isTokenInBlacklist(String token) {
-        String key = "blacklist:token:" + token;
-        return hasKey(key);
+        return isTokenDigestInBlacklist(DigestUtil.sha256Hex(token));
+    }
+
+    /**
+     * 按令牌的SHA-256十六进制摘要检查是否在黑名单中
+     * 
+     * @param digest 令牌摘要
+     * @return true在黑名单中 false不在黑名单中
+     */
+    public boolean isTokenDigestInBlacklist(String digest) {
+        return hasKey(RedisConstants.TOKEN_BLACKLIST_PREFIX + digest);
     }
 
     /**
@@ -639,8 +678,7 @@ public class RedisUtils {
      * @param token 令牌
      */
     public void removeTokenFromBlacklist(String token) {
-        String key = "blacklist:token:" + token;
-        del(key);
+        del(RedisConstants.TOKEN_BLACKLIST_PREFIX + DigestUtil.sha256Hex(token));
     }
 
     // ============================缓存管理============================
@@ -655,6 +693,20 @@ public class RedisUtils {
         return stringRedisTemplate.keys(pattern);
     }
 
+    /**
+     * 以SCAN增量遍历匹配的key，不阻塞Redis
+     * 
+     * @param pattern  匹配模式
+     * @param count    每批数量提示
+     * @param consumer key处理器
+     */
+    public void scan(String pattern, long count, Consumer<String> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            cursor.forEachRemaining(consumer);
+        }
+    }
+
     /**
      * 批量删除匹配的key
      * 
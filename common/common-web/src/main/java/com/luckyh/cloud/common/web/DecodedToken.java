@@ -0,0 +1,97 @@
+package com.luckyh.cloud.common.web;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 已解析的JWT令牌
+ * <p>
+ * 由{@link JwtUtils#decode(String)}返回，签名与有效期已校验通过。
+ * 同一令牌需要读取多个字段时只解析一次，避免逐个字段重复验签。
+ */
+public final class DecodedToken {
+
+    private final Claims claims;
+
+    DecodedToken(Claims claims) {
+        this.claims = claims;
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    public Long getUserId() {
+        return toLong(claims.get("userId"));
+    }
+
+    public String getRealName() {
+        return claims.get("realName", String.class);
+    }
+
+    public Integer getUserType() {
+        Object userType = claims.get("userType");
+        return userType != null ? Integer.valueOf(userType.toString()) : null;
+    }
+
+    /**
+     * 签发时的角色编码，旧令牌不带该claim时返回空列表
+     */
+    public List<String> getRoles() {
+        if (!(claims.get("roles") instanceof List<?> list) || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> roles = new ArrayList<>(list.size());
+        for (Object role : list) {
+            roles.add(String.valueOf(role));
+        }
+        return roles;
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    /**
+     * 是否为刷新令牌
+     */
+    public boolean isRefreshToken() {
+        return TokenClaims.TYPE_REFRESH.equals(claims.get(TokenClaims.TYPE));
+    }
+
+    /**
+     * 刷新令牌族ID，旧令牌不带该claim时返回null
+     */
+    public String getFamilyId() {
+        return claims.get(TokenClaims.FAMILY, String.class);
+    }
+
+    /**
+     * 刷新令牌在族内的序号
+     */
+    public Long getSequence() {
+        return toLong(claims.get(TokenClaims.SEQUENCE));
+    }
+
+    /**
+     * 签发时的用户令牌纪元
+     */
+    public Long getEpoch() {
+        return toLong(claims.get(TokenClaims.EPOCH));
+    }
+
+    private static Long toLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+    }
+}
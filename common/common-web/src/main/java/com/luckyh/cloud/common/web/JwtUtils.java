@@ -1,21 +1,36 @@
 package com.luckyh.cloud.common.web;
 
+import com.luckyh.cloud.common.web.jwk.JwtKeyRing;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.PrivateKey;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * JWT工具类
+ * <p>
+ * 签名密钥与JwtParser在启动时构建一次后复用；需要读取多个字段时使用{@link #decode(String)}只解析一次。
+ * <p>
+ * 设置了{@link JwtKeyRing}签名密钥时以RS256/EdDSA签发并在令牌头写入kid，否则使用共享密钥HS512签发。
+ * 验签按令牌头的kid从密钥环查找公钥，没有kid的令牌使用共享密钥校验（jwt.hmac-enabled=false时拒绝）。
  */
 @Slf4j
 @Component
@@ -29,6 +44,34 @@ public class JwtUtils {
     
     @Value("${jwt.refresh-expiration:604800}")
     private Long refreshExpiration;
+
+    @Value("${jwt.hmac-enabled:true}")
+    private boolean hmacEnabled;
+
+    private SecretKey hmacKey;
+
+    private JwtParser jwtParser;
+
+    private volatile JwtKeyRing keyRing = JwtKeyRing.empty();
+
+    @PostConstruct
+    public void init() {
+        this.hmacKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new KeyRingLocator())
+                .build();
+    }
+
+    /**
+     * 替换非对称密钥环，签发方轮换密钥或验签方刷新JWKS后调用
+     */
+    public void setKeyRing(JwtKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    public JwtKeyRing getKeyRing() {
+        return keyRing;
+    }
     
     /**
      * 生成JWT令牌
@@ -62,17 +105,24 @@ public class JwtUtils {
      * 生成刷新令牌
      */
     public String generateRefreshToken(String username, Long userId) {
+        return generateRefreshToken(username, userId, new HashMap<>());
+    }
+    
+    /**
+     * 生成刷新令牌（包含刷新令牌族等信息）
+     */
+    public String generateRefreshToken(String username, Long userId, Map<String, Object> claims) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + refreshExpiration * 1000);
         
-        return Jwts.builder()
-                .setSubject(username)
+        JwtBuilder builder = Jwts.builder()
+                .claims(claims)
+                .subject(username)
                 .claim("userId", userId)
-                .claim("type", "refresh")
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
-                .compact();
+                .claim(TokenClaims.TYPE, TokenClaims.TYPE_REFRESH)
+                .issuedAt(now)
+                .expiration(expiryDate);
+        return sign(builder);
     }
     
     /**
@@ -82,74 +132,91 @@ public class JwtUtils {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration * 1000);
         
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(subject)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+        JwtBuilder builder = Jwts.builder()
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(now)
+                .expiration(expiryDate);
+        return sign(builder);
+    }
+    
+    /**
+     * 使用当前签名密钥签名
+     */
+    private String sign(JwtBuilder builder) {
+        JwtKeyRing.SigningKey signingKey = keyRing.getSigningKey();
+        if (signingKey == null) {
+            return builder.signWith(hmacKey, Jwts.SIG.HS512).compact();
+        }
+        return builder.header().keyId(signingKey.kid()).and()
+                .signWith(signingKey.privateKey(), signatureAlgorithm(signingKey.privateKey()))
                 .compact();
     }
+
+    private static SignatureAlgorithm signatureAlgorithm(PrivateKey privateKey) {
+        return "RSA".equals(privateKey.getAlgorithm()) ? Jwts.SIG.RS256 : Jwts.SIG.EdDSA;
+    }
+    
+    /**
+     * 解析并校验令牌
+     *
+     * @return 签名或有效期校验失败时返回null
+     */
+    public DecodedToken decode(String token) {
+        Claims claims = getClaimsFromToken(token);
+        return claims != null ? new DecodedToken(claims) : null;
+    }
     
     /**
      * 从令牌中获取用户名
      */
     public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims != null ? claims.getSubject() : null;
+        DecodedToken decoded = decode(token);
+        return decoded != null ? decoded.getUsername() : null;
     }
     
     /**
      * 从令牌中获取用户ID
      */
     public Long getUserIdFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        if (claims != null && claims.get("userId") != null) {
-            Object userId = claims.get("userId");
-            return userId instanceof Number ? ((Number) userId).longValue() : Long.valueOf(userId.toString());
-        }
-        return null;
+        DecodedToken decoded = decode(token);
+        return decoded != null ? decoded.getUserId() : null;
     }
     
     /**
      * 从令牌中获取真实姓名
      */
     public String getRealNameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims != null ? (String) claims.get("realName") : null;
+        DecodedToken decoded = decode(token);
+        return decoded != null ? decoded.getRealName() : null;
     }
     
     /**
      * 从令牌中获取用户类型
      */
     public Integer getUserTypeFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        if (claims != null && claims.get("userType") != null) {
-            return Integer.valueOf(claims.get("userType").toString());
-        }
-        return null;
+        DecodedToken decoded = decode(token);
+        return decoded != null ? decoded.getUserType() : null;
     }
     
     /**
      * 从令牌中获取过期时间
      */
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims != null ? claims.getExpiration() : null;
+        DecodedToken decoded = decode(token);
+        return decoded != null ? decoded.getExpiration() : null;
     }
     
     /**
      * 从令牌中获取Claims
+     * <p>
+     * 无效或过期令牌属于正常的客户端输入，只记录DEBUG日志
      */
     public Claims getClaimsFromToken(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return jwtParser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
-            log.error("解析JWT令牌失败: {}", e.getMessage());
+            log.debug("解析JWT令牌失败: {}", e.getMessage());
             return null;
         }
     }
@@ -166,29 +233,15 @@ public class JwtUtils {
      * 验证令牌
      */
     public Boolean validateToken(String token, String username) {
-        String tokenUsername = getUsernameFromToken(token);
-        return (username.equals(tokenUsername) && !isTokenExpired(token));
+        DecodedToken decoded = decode(token);
+        return decoded != null && username.equals(decoded.getUsername());
     }
     
     /**
-     * 验证令牌（兼容auth-service）
+     * 验证令牌（兼容auth-service），解析时已校验有效期
      */
     public boolean validateToken(String token) {
-        try {
-            Claims claims = getClaimsFromToken(token);
-            return claims != null && !isTokenExpired(token);
-        } catch (Exception e) {
-            log.warn("token验证失败: {}", e.getMessage());
-            return false;
-        }
-    }
-    
-    /**
-     * 获取签名密钥
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return decode(token) != null;
     }
     
     /**
@@ -208,4 +261,33 @@ public class JwtUtils {
     public Long getExpiration() {
         return expiration;
     }
+    
+    /**
+     * 获取刷新令牌过期时间（秒）
+     */
+    public Long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    /**
+     * 按令牌头的kid选择验签密钥
+     */
+    private class KeyRingLocator extends LocatorAdapter<Key> {
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String kid = header.getKeyId();
+            if (kid != null) {
+                PublicKey publicKey = keyRing.getVerificationKey(kid);
+                if (publicKey == null) {
+                    throw new UnsupportedJwtException("未知的密钥ID: " + kid);
+                }
+                return publicKey;
+            }
+            if (!hmacEnabled) {
+                throw new UnsupportedJwtException("令牌缺少密钥ID");
+            }
+            return hmacKey;
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.luckyh.cloud.common.web;
+
+/**
+ * JWT自定义claim名称
+ */
+public final class TokenClaims {
+
+    /**
+     * 令牌类型，刷新令牌为{@link #TYPE_REFRESH}，访问令牌不带该claim
+     */
+    public static final String TYPE = "type";
+
+    /**
+     * 刷新令牌类型
+     */
+    public static final String TYPE_REFRESH = "refresh";
+
+    /**
+     * 刷新令牌族ID，同一次登录轮换出的刷新令牌及其访问令牌共享
+     */
+    public static final String FAMILY = "fid";
+
+    /**
+     * 刷新令牌在族内的序号，每次轮换加1
+     */
+    public static final String SEQUENCE = "seq";
+
+    /**
+     * 签发时的用户令牌纪元，退出所有设备后纪元递增，旧令牌随之失效
+     */
+    public static final String EPOCH = "ep";
+
+    private TokenClaims() {
+    }
+}
@@ -0,0 +1,140 @@
+package com.luckyh.cloud.common.web.jwk;
+
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 公钥与JWK（RFC 7517）之间的转换
+ * <p>
+ * 支持RSA（RS256）与Ed25519（EdDSA）公钥，JSON序列化由调用方完成。
+ */
+public final class JwkConverter {
+
+    /**
+     * Ed25519公钥X.509编码的固定前缀，后接32字节原始公钥
+     */
+    private static final byte[] ED25519_X509_PREFIX = {
+            0x30, 0x2a, 0x30, 0x05, 0x06, 0x03, 0x2b, 0x65, 0x70, 0x03, 0x21, 0x00};
+
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private JwkConverter() {
+    }
+
+    /**
+     * 将公钥集合转换为JWKS结构：{"keys": [...]}
+     */
+    public static Map<String, Object> toJwkSet(Map<String, PublicKey> keys) {
+        List<Map<String, Object>> jwks = new ArrayList<>(keys.size());
+        keys.forEach((kid, key) -> jwks.add(toJwk(kid, key)));
+        Map<String, Object> jwkSet = new LinkedHashMap<>();
+        jwkSet.put("keys", jwks);
+        return jwkSet;
+    }
+
+    /**
+     * 将公钥转换为JWK
+     */
+    public static Map<String, Object> toJwk(String kid, PublicKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "RS256");
+            jwk.put("n", encodeUnsigned(rsaKey.getModulus()));
+            jwk.put("e", encodeUnsigned(rsaKey.getPublicExponent()));
+        } else if (isEd25519(key)) {
+            byte[] encoded = key.getEncoded();
+            jwk.put("kty", "OKP");
+            jwk.put("kid", kid);
+            jwk.put("use", "sig");
+            jwk.put("alg", "EdDSA");
+            jwk.put("crv", "Ed25519");
+            jwk.put("x", base64Url(Arrays.copyOfRange(encoded, encoded.length - ED25519_KEY_LENGTH, encoded.length)));
+        } else {
+            throw new IllegalArgumentException("不支持的公钥类型: " + key.getAlgorithm());
+        }
+        return jwk;
+    }
+
+    /**
+     * 解析JWKS结构，跳过不支持或格式错误的条目
+     *
+     * @return kid到公钥的映射
+     */
+    public static Map<String, PublicKey> fromJwkSet(Map<String, ?> jwkSet) {
+        Map<String, PublicKey> keys = new LinkedHashMap<>();
+        if (!(jwkSet.get("keys") instanceof List<?> list)) {
+            return keys;
+        }
+        for (Object item : list) {
+            if (!(item instanceof Map<?, ?> jwk) || !(jwk.get("kid") instanceof String kid)) {
+                continue;
+            }
+            if (jwk.get("use") != null && !"sig".equals(jwk.get("use"))) {
+                continue;
+            }
+            PublicKey key = fromJwk(jwk);
+            if (key != null) {
+                keys.put(kid, key);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 将JWK转换为公钥，不支持或格式错误时返回null
+     */
+    public static PublicKey fromJwk(Map<?, ?> jwk) {
+        try {
+            Object kty = jwk.get("kty");
+            if ("RSA".equals(kty)) {
+                BigInteger modulus = new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("n")));
+                BigInteger exponent = new BigInteger(1, Base64.getUrlDecoder().decode((String) jwk.get("e")));
+                return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(modulus, exponent));
+            }
+            if ("OKP".equals(kty) && "Ed25519".equals(jwk.get("crv"))) {
+                byte[] x = Base64.getUrlDecoder().decode((String) jwk.get("x"));
+                if (x.length != ED25519_KEY_LENGTH) {
+                    return null;
+                }
+                byte[] encoded = Arrays.copyOf(ED25519_X509_PREFIX, ED25519_X509_PREFIX.length + x.length);
+                System.arraycopy(x, 0, encoded, ED25519_X509_PREFIX.length, x.length);
+                return KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static boolean isEd25519(PublicKey key) {
+        String algorithm = key.getAlgorithm();
+        return ("Ed25519".equals(algorithm) || "EdDSA".equals(algorithm))
+                && key.getEncoded().length == ED25519_X509_PREFIX.length + ED25519_KEY_LENGTH;
+    }
+
+    private static String encodeUnsigned(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return base64Url(bytes);
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,84 @@
+package com.luckyh.cloud.common.web.jwk;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JWT非对称密钥环
+ * <p>
+ * 按kid保存所有可用于验签的公钥，轮换期间新旧密钥同时存在；签发方另持有一把当前签名私钥。
+ * 实例不可变，轮换时整体替换。
+ */
+public final class JwtKeyRing {
+
+    private static final JwtKeyRing EMPTY = new JwtKeyRing(null, Map.of());
+
+    private final SigningKey signingKey;
+    private final Map<String, PublicKey> verificationKeys;
+
+    private JwtKeyRing(SigningKey signingKey, Map<String, PublicKey> verificationKeys) {
+        this.signingKey = signingKey;
+        this.verificationKeys = Collections.unmodifiableMap(new LinkedHashMap<>(verificationKeys));
+    }
+
+    /**
+     * 空密钥环，只使用HMAC密钥
+     */
+    public static JwtKeyRing empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 签发方密钥环
+     *
+     * @param signingKey       当前签名密钥，其公钥须包含在verificationKeys中
+     * @param verificationKeys kid到公钥的映射，包含即将退役的密钥
+     */
+    public static JwtKeyRing of(SigningKey signingKey, Map<String, PublicKey> verificationKeys) {
+        if (signingKey != null && !verificationKeys.containsKey(signingKey.kid())) {
+            throw new IllegalArgumentException("签名密钥缺少对应公钥: " + signingKey.kid());
+        }
+        return new JwtKeyRing(signingKey, verificationKeys);
+    }
+
+    /**
+     * 只用于验签的密钥环，如网关从JWKS获取的公钥
+     */
+    public static JwtKeyRing verifyOnly(Map<String, PublicKey> verificationKeys) {
+        return new JwtKeyRing(null, verificationKeys);
+    }
+
+    /**
+     * 当前签名密钥，未配置时返回null
+     */
+    public SigningKey getSigningKey() {
+        return signingKey;
+    }
+
+    /**
+     * 按kid查找验签公钥，不存在时返回null
+     */
+    public PublicKey getVerificationKey(String kid) {
+        return kid != null ? verificationKeys.get(kid) : null;
+    }
+
+    public Map<String, PublicKey> getVerificationKeys() {
+        return verificationKeys;
+    }
+
+    public boolean isEmpty() {
+        return verificationKeys.isEmpty();
+    }
+
+    /**
+     * 签名密钥
+     *
+     * @param kid        密钥ID，写入令牌头
+     * @param privateKey RSA或Ed25519私钥
+     */
+    public record SigningKey(String kid, PrivateKey privateKey) {
+    }
+}
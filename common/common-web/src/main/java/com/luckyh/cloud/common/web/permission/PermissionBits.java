@@ -0,0 +1,90 @@
+package com.luckyh.cloud.common.web.permission;
+
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * 权限位集
+ * <p>
+ * 令牌中以小端字节序、去掉末尾零字节后的Base64URL字符串携带，十个权限只占三个字符。
+ * 解码一次后{@link #has(int)}为O(1)位运算，不分配对象。
+ */
+public final class PermissionBits {
+
+    private static final PermissionBits EMPTY = new PermissionBits(new long[0]);
+
+    private final long[] words;
+
+    private PermissionBits(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 由位序号构建位集
+     */
+    public static PermissionBits of(Collection<Integer> indices) {
+        int max = -1;
+        for (Integer index : indices) {
+            if (index != null && index > max) {
+                max = index;
+            }
+        }
+        if (max < 0) {
+            return EMPTY;
+        }
+        long[] words = new long[(max >>> 6) + 1];
+        for (Integer index : indices) {
+            if (index != null && index >= 0) {
+                words[index >>> 6] |= 1L << index;
+            }
+        }
+        return new PermissionBits(words);
+    }
+
+    /**
+     * 解码令牌中的位集
+     *
+     * @throws IllegalArgumentException 不是合法的Base64URL字符串
+     */
+    public static PermissionBits decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return EMPTY;
+        }
+        byte[] bytes = Base64.getUrlDecoder().decode(encoded);
+        long[] words = new long[(bytes.length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return new PermissionBits(words);
+    }
+
+    /**
+     * 编码为令牌中携带的字符串
+     */
+    public String encode() {
+        int length = words.length << 3;
+        while (length > 0 && byteAt(length - 1) == 0) {
+            length--;
+        }
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = byteAt(i);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * 是否包含指定位序号的权限
+     */
+    public boolean has(int index) {
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    private byte byteAt(int i) {
+        return (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+    }
+}
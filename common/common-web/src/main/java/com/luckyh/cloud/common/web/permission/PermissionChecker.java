@@ -0,0 +1,98 @@
+package com.luckyh.cloud.common.web.permission;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 权限校验器
+ * <p>
+ * 持有当前权限表，按令牌中的权限位集与权限表版本号校验权限。
+ * 令牌签发后权限表发生变化时版本号不一致，返回{@link Result#STALE}，调用方应要求客户端刷新令牌，
+ * 而不是按可能已错位的位集授权。
+ * <p>
+ * 版本不一致也可能是本地权限表落后于签发方，可通过{@link #onStale(LongConsumer)}在此时触发重新加载。
+ */
+public class PermissionChecker {
+
+    /**
+     * 令牌中权限位集的claim名
+     */
+    public static final String CLAIM_PERMISSIONS = "perm";
+
+    /**
+     * 令牌中权限表版本号的claim名
+     */
+    public static final String CLAIM_PERMISSION_VERSION = "pv";
+
+    private volatile PermissionTable table;
+
+    private volatile LongConsumer staleListener;
+
+    public PermissionChecker(PermissionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * 替换权限表
+     */
+    public void update(PermissionTable table) {
+        this.table = table;
+    }
+
+    public PermissionTable getTable() {
+        return table;
+    }
+
+    /**
+     * 设置令牌权限表版本与当前版本不一致时的回调，参数为令牌中的版本号，回调须快速返回
+     */
+    public void onStale(LongConsumer listener) {
+        this.staleListener = listener;
+    }
+
+    /**
+     * 校验权限
+     *
+     * @param bits    令牌中的权限位集
+     * @param version 令牌中的权限表版本号
+     * @param code    权限编码
+     */
+    public Result check(PermissionBits bits, long version, String code) {
+        PermissionTable current = table;
+        if (version != current.getVersion()) {
+            LongConsumer listener = staleListener;
+            if (listener != null) {
+                listener.accept(version);
+            }
+            return Result.STALE;
+        }
+        return bits.has(current.indexOf(code)) ? Result.GRANTED : Result.DENIED;
+    }
+
+    /**
+     * 是否拥有权限，令牌权限表版本过期时视为没有权限
+     */
+    public boolean hasPermission(PermissionBits bits, long version, String code) {
+        return check(bits, version, code) == Result.GRANTED;
+    }
+
+    /**
+     * 校验结果
+     */
+    public enum Result {
+
+        /**
+         * 拥有权限
+         */
+        GRANTED,
+
+        /**
+         * 没有权限
+         */
+        DENIED,
+
+        /**
+         * 令牌签发时的权限表已过期，需要刷新令牌
+         */
+        STALE
+    }
+}
@@ -0,0 +1,36 @@
+package com.luckyh.cloud.common.web.permission;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * 权限校验配置
+ * <p>
+ * 引入Redis的服务自动获得{@link PermissionChecker}，权限表由{@link PermissionTableLoader}从Redis加载并定期刷新，
+ * 按令牌中的perm与pv声明校验权限。
+ */
+@Configuration
+@ConditionalOnClass(StringRedisTemplate.class)
+public class PermissionCheckerConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "destroy")
+    @ConditionalOnMissingBean
+    public PermissionTableLoader permissionTableLoader(
+            StringRedisTemplate stringRedisTemplate,
+            @Value("${permission.refresh-interval:30s}") Duration refreshInterval,
+            @Value("${permission.min-reload-interval:1s}") Duration minReloadInterval) {
+        return new PermissionTableLoader(stringRedisTemplate, refreshInterval, minReloadInterval);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public PermissionChecker permissionChecker(PermissionTableLoader permissionTableLoader) {
+        return permissionTableLoader.getChecker();
+    }
+}
@@ -0,0 +1,66 @@
+package com.luckyh.cloud.common.web.permission;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 权限表：权限编码到位序号的映射
+ * <p>
+ * 位序号取sys_permission的主键ID。版本号由映射内容计算，新增、删除、停用权限或修改编码都会改变版本号，
+ * 各服务用同样的映射构建出的版本号一致，无需额外协调。
+ */
+public final class PermissionTable {
+
+    private final Map<String, Integer> indexByCode;
+    private final long version;
+
+    private PermissionTable(Map<String, Integer> indexByCode) {
+        this.indexByCode = Collections.unmodifiableMap(new HashMap<>(indexByCode));
+        this.version = computeVersion(indexByCode);
+    }
+
+    /**
+     * 根据权限编码到位序号的映射构建权限表
+     */
+    public static PermissionTable of(Map<String, Integer> indexByCode) {
+        for (Map.Entry<String, Integer> entry : indexByCode.entrySet()) {
+            if (entry.getValue() == null || entry.getValue() < 0) {
+                throw new IllegalArgumentException("权限位序号无效: " + entry.getKey());
+            }
+        }
+        return new PermissionTable(indexByCode);
+    }
+
+    /**
+     * 权限编码对应的位序号
+     *
+     * @return 未知权限返回-1
+     */
+    public int indexOf(String code) {
+        Integer index = indexByCode.get(code);
+        return index != null ? index : -1;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Map<String, Integer> getIndexByCode() {
+        return indexByCode;
+    }
+
+    private static long computeVersion(Map<String, Integer> indexByCode) {
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(indexByCode.entrySet());
+        entries.sort(Map.Entry.comparingByValue());
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, Integer> entry : entries) {
+            crc.update((entry.getValue() + ":" + entry.getKey() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,124 @@
+package com.luckyh.cloud.common.web.permission;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 权限表加载器
+ * <p>
+ * 从Redis读取auth-service发布的权限表（{@link RedisConstants#PERMISSION_TABLE_KEY}）并更新{@link PermissionChecker}，
+ * 启动时加载一次，之后每隔refreshInterval重新读取。令牌携带的权限表版本与本地不一致时立即异步重新读取
+ * （间隔不少于minReloadInterval），权限变更后新签发的令牌不必等待下一次定时刷新。
+ * <p>
+ * Redis中尚无权限表或读取失败时保留现有权限表，此时所有令牌的版本都不一致，校验结果为STALE。
+ */
+@Slf4j
+public class PermissionTableLoader {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration refreshInterval;
+    private final Duration minReloadInterval;
+    private final PermissionChecker checker = new PermissionChecker(PermissionTable.of(Map.of()));
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "permission-table-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long lastReloadNanos;
+
+    public PermissionTableLoader(StringRedisTemplate redisTemplate, Duration refreshInterval, Duration minReloadInterval) {
+        this.redisTemplate = redisTemplate;
+        this.refreshInterval = refreshInterval;
+        this.minReloadInterval = minReloadInterval;
+    }
+
+    public void start() {
+        reloadQuietly();
+        checker.onStale(this::onStale);
+        long intervalMillis = refreshInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::reloadQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    public PermissionChecker getChecker() {
+        return checker;
+    }
+
+    /**
+     * 从Redis重新读取权限表
+     */
+    public void reload() {
+        lastReloadNanos = System.nanoTime();
+        String json = redisTemplate.opsForValue().get(RedisConstants.PERMISSION_TABLE_KEY);
+        if (json == null) {
+            log.debug("Redis中尚无权限表");
+            return;
+        }
+        PermissionTable loaded = parse(json);
+        if (loaded.getVersion() != checker.getTable().getVersion()) {
+            log.info("权限表已更新，权限数：{}，版本：{}", loaded.getIndexByCode().size(), loaded.getVersion());
+            checker.update(loaded);
+        }
+    }
+
+    /**
+     * 解析auth-service发布的权限表，版本号由映射内容重新计算，与发布的版本号不一致时拒绝
+     */
+    static PermissionTable parse(String json) {
+        JsonNode root;
+        try {
+            root = OBJECT_MAPPER.readTree(json);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("权限表格式无效", e);
+        }
+        Map<String, Integer> indexByCode = new HashMap<>();
+        JsonNode codes = root.path("codes");
+        for (Iterator<Map.Entry<String, JsonNode>> it = codes.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> entry = it.next();
+            indexByCode.put(entry.getKey(), entry.getValue().asInt(-1));
+        }
+        PermissionTable table = PermissionTable.of(indexByCode);
+        long published = root.path("version").asLong(-1);
+        if (published != table.getVersion()) {
+            throw new IllegalArgumentException("权限表版本不一致，发布版本：" + published + "，计算版本：" + table.getVersion());
+        }
+        return table;
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("加载权限表失败，继续使用现有权限表：{}", e.getMessage());
+        } finally {
+            reloadPending.set(false);
+        }
+    }
+
+    private void onStale(long tokenVersion) {
+        if (System.nanoTime() - lastReloadNanos < minReloadInterval.toNanos()
+                || !reloadPending.compareAndSet(false, true)) {
+            return;
+        }
+        scheduler.execute(this::reloadQuietly);
+    }
+}
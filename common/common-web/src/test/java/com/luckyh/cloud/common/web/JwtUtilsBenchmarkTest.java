@@ -0,0 +1,97 @@
+package com.luckyh.cloud.common.web;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 令牌校验微基准：启动时构建一次的JwtParser与原先每次校验都重新派生密钥、构建解析器对比
+ * <p>
+ * 默认构建不运行，使用{@code mvn test -Pbenchmark}执行。平均耗时通过{@link TestReporter}写入测试报告，
+ * 不对耗时做断言，避免在繁忙的构建机上误报；两种方式的解析结果须一致。
+ */
+@Tag("benchmark")
+class JwtUtilsBenchmarkTest {
+
+    // HS512要求密钥不少于64字节
+    private static final String SECRET = "luckyh-cloud-benchmark-secret-key-for-hs512-token-signing-0123456789";
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final int ITERATIONS = 2000;
+
+    @Test
+    void compareCachedParserWithPerCallParser(TestReporter reporter) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 7200L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpiration", 604800L);
+        ReflectionTestUtils.setField(jwtUtils, "hmacEnabled", true);
+        jwtUtils.init();
+
+        String token = jwtUtils.generateToken("admin", 1L, "管理员", 1);
+        assertTrue(jwtUtils.validateToken(token));
+        assertEquals("admin", perCallSubject(token));
+
+        long cachedValid = 0;
+        long perCallValid = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            cachedValid += runCached(jwtUtils, token);
+            perCallValid += runPerCall(token);
+        }
+        long cachedNanos = 0;
+        long perCallNanos = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            cachedValid += runCached(jwtUtils, token);
+            cachedNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            perCallValid += runPerCall(token);
+            perCallNanos += System.nanoTime() - start;
+        }
+        // 校验结果参与断言，避免循环被JIT消除
+        assertEquals(perCallValid, cachedValid);
+        long operations = (long) MEASURE_ROUNDS * ITERATIONS;
+        reporter.publishEntry("cachedParserNanosPerOp", String.valueOf((double) cachedNanos / operations));
+        reporter.publishEntry("perCallParserNanosPerOp", String.valueOf((double) perCallNanos / operations));
+    }
+
+    private static long runCached(JwtUtils jwtUtils, String token) {
+        long valid = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+            if (jwtUtils.validateToken(token)) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    private static long runPerCall(String token) {
+        long valid = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+            if (perCallSubject(token) != null) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * 原实现：每次校验都从密钥字符串派生SecretKey并构建新的JwtParser
+     */
+    private static String perCallSubject(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject();
+    }
+}
@@ -0,0 +1,50 @@
+package com.luckyh.cloud.common.web.permission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 权限表加载测试
+ */
+class PermissionTableLoaderTest {
+
+    private final PermissionTable table = PermissionTable.of(Map.of("user:list", 1, "user:edit", 2, "order:list", 5));
+
+    @Test
+    void parsesPublishedTable() {
+        String json = "{\"version\":" + table.getVersion()
+                + ",\"codes\":{\"user:list\":1,\"user:edit\":2,\"order:list\":5}}";
+        PermissionTable parsed = PermissionTableLoader.parse(json);
+        assertEquals(table.getVersion(), parsed.getVersion());
+        assertEquals(5, parsed.indexOf("order:list"));
+        assertEquals(-1, parsed.indexOf("order:delete"));
+    }
+
+    @Test
+    void rejectsVersionMismatch() {
+        String json = "{\"version\":" + (table.getVersion() + 1)
+                + ",\"codes\":{\"user:list\":1,\"user:edit\":2,\"order:list\":5}}";
+        assertThrows(IllegalArgumentException.class, () -> PermissionTableLoader.parse(json));
+    }
+
+    @Test
+    void staleTokenNotifiesListener() {
+        PermissionChecker checker = new PermissionChecker(table);
+        AtomicLong staleVersion = new AtomicLong(-1);
+        checker.onStale(staleVersion::set);
+        PermissionBits bits = PermissionBits.of(List.of(1, 5));
+
+        assertEquals(PermissionChecker.Result.GRANTED, checker.check(bits, table.getVersion(), "order:list"));
+        assertEquals(PermissionChecker.Result.DENIED, checker.check(bits, table.getVersion(), "user:edit"));
+        assertEquals(-1, staleVersion.get());
+
+        assertEquals(PermissionChecker.Result.STALE, checker.check(bits, 42, "order:list"));
+        assertEquals(42, staleVersion.get());
+    }
+}
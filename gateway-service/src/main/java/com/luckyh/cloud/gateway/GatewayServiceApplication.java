@@ -1,15 +1,18 @@
 package com.luckyh.cloud.gateway;
 
+import com.luckyh.cloud.common.web.JwtUtils;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
 
 /**
  * 网关服务启动类
  */
 @SpringBootApplication
 @EnableDiscoveryClient
+@Import(JwtUtils.class)
 public class GatewayServiceApplication {
 
     public static void main(String[] args) {
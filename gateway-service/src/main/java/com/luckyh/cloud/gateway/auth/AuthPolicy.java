@@ -0,0 +1,22 @@
+package com.luckyh.cloud.gateway.auth;
+
+/**
+ * 路由认证策略
+ */
+public enum AuthPolicy {
+
+    /**
+     * 公开访问，无需令牌
+     */
+    PUBLIC,
+
+    /**
+     * 需要有效令牌
+     */
+    TOKEN,
+
+    /**
+     * 需要有效令牌且拥有指定角色之一
+     */
+    ROLE
+}
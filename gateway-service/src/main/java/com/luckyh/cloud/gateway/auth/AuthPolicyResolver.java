@@ -0,0 +1,63 @@
+package com.luckyh.cloud.gateway.auth;
+
+import cn.hutool.core.util.StrUtil;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路由认证策略解析器
+ * <p>
+ * 持有由gateway.auth.routes编译出的{@link PathPolicyMatcher}，Nacos配置刷新后重新编译并原子替换。
+ */
+@Slf4j
+@Component
+public class AuthPolicyResolver {
+
+    private final AuthProperties authProperties;
+
+    private volatile PathPolicyMatcher matcher;
+
+    public AuthPolicyResolver(AuthProperties authProperties) {
+        this.authProperties = authProperties;
+        this.matcher = compile();
+    }
+
+    /**
+     * 解析路径对应的认证规则
+     */
+    public PathPolicyMatcher.Rule resolve(String path) {
+        return matcher.match(path);
+    }
+
+    /**
+     * 配置刷新后重建匹配器
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            matcher = compile();
+        } catch (RuntimeException e) {
+            log.error("认证路由规则编译失败，继续使用旧规则", e);
+        }
+    }
+
+    private PathPolicyMatcher compile() {
+        List<PathPolicyMatcher.Rule> rules = new ArrayList<>();
+        for (AuthProperties.Route route : authProperties.getRoutes()) {
+            if (StrUtil.isBlank(route.getPath()) || route.getPolicy() == null) {
+                log.warn("忽略无效的认证路由规则: {}", route);
+                continue;
+            }
+            rules.add(new PathPolicyMatcher.Rule(route.getPath(), route.getPolicy(),
+                    route.getRoles().toArray(new String[0])));
+        }
+        log.info("加载认证路由规则{}条: {}", rules.size(), rules);
+        return PathPolicyMatcher.compile(rules, authProperties.getDefaultPolicy());
+    }
+}
@@ -0,0 +1,48 @@
+package com.luckyh.cloud.gateway.auth;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 令牌解析出的用户身份
+ */
+@Data
+public class AuthPrincipal {
+
+    /**
+     * 用户ID
+     */
+    private Long userId;
+
+    /**
+     * 用户名
+     */
+    private String username;
+
+    /**
+     * 真实姓名
+     */
+    private String realName;
+
+    /**
+     * 用户类型
+     */
+    private Integer userType;
+
+    /**
+     * 角色列表
+     */
+    private List<String> roles = Collections.emptyList();
+
+    /**
+     * 令牌过期时间（毫秒时间戳）
+     */
+    private long expiresAt;
+
+    /**
+     * 签发时的用户令牌纪元，远程校验的身份为null（已由auth-service校验）
+     */
+    private Long tokenEpoch;
+}
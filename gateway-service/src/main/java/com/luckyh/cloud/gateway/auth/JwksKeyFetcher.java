@@ -0,0 +1,105 @@
+package com.luckyh.cloud.gateway.auth;
+
+import com.luckyh.cloud.common.web.JwtUtils;
+import com.luckyh.cloud.common.web.jwk.JwkConverter;
+import com.luckyh.cloud.common.web.jwk.JwtKeyRing;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * JWKS公钥拉取
+ * <p>
+ * 定期从auth-service拉取公钥并安装到{@link JwtUtils}，网关据此本地校验RS256/EdDSA令牌，
+ * 不持有签名密钥，也不在请求路径上回调auth-service。带ETag条件请求，公钥未变化时返回304；
+ * 拉取失败时保留上一次的公钥。
+ */
+@Slf4j
+@Component
+public class JwksKeyFetcher {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JWKS_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final JwtUtils jwtUtils;
+    private final AuthProperties authProperties;
+    private final WebClient webClient;
+
+    private volatile String etag;
+    private Disposable subscription;
+
+    public JwksKeyFetcher(JwtUtils jwtUtils,
+                          AuthProperties authProperties,
+                          WebClient.Builder loadBalancedWebClientBuilder) {
+        this.jwtUtils = jwtUtils;
+        this.authProperties = authProperties;
+        this.webClient = loadBalancedWebClientBuilder.clone().build();
+    }
+
+    @PostConstruct
+    public void start() {
+        AuthProperties.Jwks config = authProperties.getJwks();
+        if (!config.isEnabled()) {
+            return;
+        }
+        subscription = Flux.interval(Duration.ZERO, config.getRefreshInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> fetch(config.getUri()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    private Mono<Void> fetch(String uri) {
+        return webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (etag != null) {
+                        headers.setIfNoneMatch(etag);
+                    }
+                })
+                .exchangeToMono(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        return response.releaseBody();
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        log.warn("拉取JWKS失败，状态码：{}", response.statusCode().value());
+                        return response.releaseBody();
+                    }
+                    String responseEtag = response.headers().asHttpHeaders().getFirst(HttpHeaders.ETAG);
+                    return response.bodyToMono(JWKS_TYPE)
+                            .doOnNext(jwkSet -> install(jwkSet, responseEtag))
+                            .then();
+                })
+                .onErrorResume(throwable -> {
+                    log.warn("拉取JWKS失败，继续使用现有公钥：{}", throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void install(Map<String, Object> jwkSet, String responseEtag) {
+        Map<String, PublicKey> keys = JwkConverter.fromJwkSet(jwkSet);
+        jwtUtils.setKeyRing(JwtKeyRing.verifyOnly(keys));
+        etag = responseEtag;
+        log.info("JWKS公钥已更新：{}", keys.keySet());
+    }
+}
@@ -0,0 +1,159 @@
+package com.luckyh.cloud.gateway.auth;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 路径认证策略匹配器
+ * <p>
+ * 启动（或配置刷新）时将所有路径规则编译成字符前缀树，匹配时按字符逐级下探并取最长匹配，
+ * 匹配过程不创建任何对象。规则路径只在完整路径段上生效，例如/actuator匹配/actuator
+ * 与/actuator/health，但不匹配/actuatorx；末尾的/**会被忽略。
+ */
+public final class PathPolicyMatcher {
+
+    private final Node root;
+    private final Rule defaultRule;
+
+    private PathPolicyMatcher(Node root, Rule defaultRule) {
+        this.root = root;
+        this.defaultRule = defaultRule;
+    }
+
+    /**
+     * 编译匹配器
+     *
+     * @param rules         路径规则
+     * @param defaultPolicy 未匹配任何规则时的策略
+     */
+    public static PathPolicyMatcher compile(List<Rule> rules, AuthPolicy defaultPolicy) {
+        Node root = new Node();
+        Rule defaultRule = new Rule("/", defaultPolicy, new String[0]);
+        for (Rule rule : rules) {
+            if ("/".equals(rule.getPath())) {
+                defaultRule = rule;
+                continue;
+            }
+            Node node = root;
+            String path = rule.getPath();
+            for (int i = 0; i < path.length(); i++) {
+                node = node.getOrCreateChild(path.charAt(i));
+            }
+            node.rule = rule;
+        }
+        return new PathPolicyMatcher(root, defaultRule);
+    }
+
+    /**
+     * 查找路径对应的规则
+     */
+    public Rule match(String path) {
+        Rule matched = defaultRule;
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (node.rule != null && c == '/') {
+                matched = node.rule;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return matched;
+            }
+        }
+        return node.rule != null ? node.rule : matched;
+    }
+
+    /**
+     * 规范化规则路径：去掉末尾的/**与/
+     */
+    public static String normalize(String path) {
+        String normalized = path.trim();
+        if (normalized.endsWith("/**")) {
+            normalized = normalized.substring(0, normalized.length() - 3);
+        }
+        while (normalized.length() > 1 && normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.isEmpty() ? "/" : normalized;
+    }
+
+    /**
+     * 路径规则
+     */
+    public static final class Rule {
+
+        private final String path;
+        private final AuthPolicy policy;
+        private final String[] roles;
+
+        public Rule(String path, AuthPolicy policy, String[] roles) {
+            this.path = normalize(path);
+            this.policy = policy;
+            this.roles = roles;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public AuthPolicy getPolicy() {
+            return policy;
+        }
+
+        /**
+         * 判断用户角色是否满足规则，非ROLE策略始终满足
+         */
+        public boolean permits(List<String> userRoles) {
+            if (policy != AuthPolicy.ROLE) {
+                return true;
+            }
+            for (int i = 0; i < roles.length; i++) {
+                if (userRoles.contains(roles[i])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            return path + "=" + policy + (roles.length > 0 ? Arrays.toString(roles) : "");
+        }
+    }
+
+    /**
+     * 前缀树节点，子节点按字符有序存放，查找时二分
+     */
+    private static final class Node {
+
+        private char[] labels = new char[0];
+        private Node[] children = new Node[0];
+        private Rule rule;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node getOrCreateChild(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node created = new Node();
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = c;
+            newChildren[insertAt] = created;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            labels = newLabels;
+            children = newChildren;
+            return created;
+        }
+    }
+}
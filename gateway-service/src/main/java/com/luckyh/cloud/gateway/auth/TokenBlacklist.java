@@ -0,0 +1,163 @@
+package com.luckyh.cloud.gateway.auth;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.common.core.util.BloomFilter;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * 令牌黑名单
+ * <p>
+ * 本地布隆过滤器前置Redis黑名单：过滤器判定不存在的令牌直接放行，不产生网络调用；判定可能存在时才查询Redis。
+ * 过滤器由吊销通知实时添加，并定期以SCAN从Redis全量重建以清除已过期的令牌、补齐丢失的通知；
+ * 重建期间收到的通知同时写入新旧过滤器。首次重建完成前所有查询都走Redis。
+ */
+@Slf4j
+@Component
+public class TokenBlacklist {
+
+    private static final String METRIC_NAME = "gateway.auth.blacklist.lookup";
+    private static final long SCAN_COUNT = 1000;
+    private static final int SHA256_HEX_LENGTH = 64;
+    private static final Mono<Boolean> NOT_REVOKED = Mono.just(Boolean.FALSE);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final AuthProperties authProperties;
+    private final Counter bloomNegative;
+    private final Counter redisLookup;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private Disposable revokeSubscription;
+    private Disposable rebuildSubscription;
+
+    public TokenBlacklist(ReactiveStringRedisTemplate redisTemplate,
+                          ReactiveRedisMessageListenerContainer listenerContainer,
+                          AuthProperties authProperties,
+                          MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.authProperties = authProperties;
+        this.bloomNegative = counter(meterRegistry, "bloom");
+        this.redisLookup = counter(meterRegistry, "redis");
+    }
+
+    @PostConstruct
+    public void start() {
+        AuthProperties.Blacklist config = authProperties.getBlacklist();
+        if (!config.isBloomEnabled()) {
+            return;
+        }
+        revokeSubscription = listenerContainer
+                .receive(ChannelTopic.of(RedisConstants.TOKEN_REVOKE_CHANNEL))
+                .doOnNext(message -> add(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("令牌吊销订阅异常，准备重试: {}", signal.failure().getMessage())))
+                .subscribe();
+        rebuildSubscription = Flux.interval(Duration.ZERO, config.getRebuildInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> rebuild())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (revokeSubscription != null) {
+            revokeSubscription.dispose();
+        }
+        if (rebuildSubscription != null) {
+            rebuildSubscription.dispose();
+        }
+    }
+
+    /**
+     * 令牌是否已被吊销
+     */
+    public Mono<Boolean> isRevoked(String token) {
+        return isRevoked(TokenDigest.of(token), token);
+    }
+
+    /**
+     * 令牌是否已被吊销，调用方已计算摘要时使用，避免重复计算
+     */
+    public Mono<Boolean> isRevoked(TokenDigest digest, String token) {
+        BloomFilter current = filter;
+        if (current != null) {
+            if (!current.mightContain(digest.high(), digest.low())) {
+                bloomNegative.increment();
+                return NOT_REVOKED;
+            }
+        }
+        redisLookup.increment();
+        return redisTemplate.hasKey(RedisConstants.TOKEN_BLACKLIST_PREFIX + DigestUtil.sha256Hex(token));
+    }
+
+    private Mono<Void> rebuild() {
+        AuthProperties.Blacklist config = authProperties.getBlacklist();
+        BloomFilter next = BloomFilter.create(config.getExpectedInsertions(), config.getFalsePositiveRate());
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(RedisConstants.TOKEN_BLACKLIST_PREFIX + "*")
+                .count(SCAN_COUNT)
+                .build();
+        return Mono.fromRunnable(() -> building = next)
+                .thenMany(redisTemplate.scan(options))
+                .doOnNext(key -> {
+                    String suffix = key.substring(RedisConstants.TOKEN_BLACKLIST_PREFIX.length());
+                    // 旧格式以完整令牌为键，由auth-service迁移为摘要键
+                    next.putHex(suffix.length() == SHA256_HEX_LENGTH ? suffix : DigestUtil.sha256Hex(suffix));
+                })
+                .count()
+                .doOnNext(count -> {
+                    filter = next;
+                    if (count > config.getExpectedInsertions()) {
+                        log.warn("黑名单令牌数{}超过布隆过滤器预期容量{}，误判率将上升", count, config.getExpectedInsertions());
+                    }
+                })
+                .doFinally(signal -> building = null)
+                .onErrorResume(throwable -> {
+                    log.warn("重建令牌黑名单布隆过滤器失败，继续使用现有过滤器：{}", throwable.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void add(String digest) {
+        if (digest.length() != SHA256_HEX_LENGTH) {
+            return;
+        }
+        // 先读building再读filter：重建先发布filter再清空building，读到building为null时filter已是新过滤器，
+        // 反之读到旧filter时building仍为新过滤器，吊销不会只写入即将被替换的旧过滤器
+        BloomFilter next = building;
+        BloomFilter current = filter;
+        if (current != null) {
+            current.putHex(digest);
+        }
+        if (next != null && next != current) {
+            next.putHex(digest);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder(METRIC_NAME)
+                .description("网关令牌黑名单查询来源计数")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
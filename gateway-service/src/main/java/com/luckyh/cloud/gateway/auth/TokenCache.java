@@ -0,0 +1,134 @@
+package com.luckyh.cloud.gateway.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 已校验令牌缓存
+ * <p>
+ * 以令牌摘要为键缓存解析后的用户身份，命中时跳过JWT解析与签名校验。
+ * 条目过期时间取配置TTL与令牌剩余有效期中的较小值；收到auth-service的吊销通知后立即失效。
+ * 吊销通知可能丢失，命中缓存后仍由{@link TokenVerifier}查询黑名单（布隆过滤器判定不存在时无网络调用）。
+ */
+@Slf4j
+@Component
+public class TokenCache {
+
+    private static final String CACHE_NAME = "gatewayTokenCache";
+
+    private final AuthProperties authProperties;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final Cache<TokenDigest, AuthPrincipal> cache;
+
+    private Disposable revokeSubscription;
+
+    public TokenCache(AuthProperties authProperties,
+                      ReactiveRedisMessageListenerContainer listenerContainer,
+                      MeterRegistry meterRegistry) {
+        this.authProperties = authProperties;
+        this.listenerContainer = listenerContainer;
+        AuthProperties.Cache config = authProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfter(new PrincipalExpiry(config.getTtl()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 订阅令牌吊销通知
+     */
+    @PostConstruct
+    public void subscribe() {
+        revokeSubscription = listenerContainer
+                .receive(ChannelTopic.of(RedisConstants.TOKEN_REVOKE_CHANNEL))
+                .doOnNext(message -> invalidate(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("令牌吊销订阅异常，准备重试: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (revokeSubscription != null) {
+            revokeSubscription.dispose();
+        }
+    }
+
+    public boolean isEnabled() {
+        return authProperties.getCache().isEnabled();
+    }
+
+    public AuthPrincipal get(TokenDigest digest) {
+        return cache.getIfPresent(digest);
+    }
+
+    /**
+     * 缓存已校验的身份，没有过期时间的身份（如远程校验结果）不缓存
+     */
+    public void put(TokenDigest digest, AuthPrincipal principal) {
+        if (principal.getExpiresAt() > System.currentTimeMillis()) {
+            cache.put(digest, principal);
+        }
+    }
+
+    public void invalidate(TokenDigest digest) {
+        cache.invalidate(digest);
+    }
+
+    /**
+     * 根据SHA-256十六进制摘要失效缓存
+     */
+    public void invalidate(String sha256Hex) {
+        try {
+            cache.invalidate(TokenDigest.fromHex(sha256Hex));
+        } catch (RuntimeException e) {
+            log.warn("忽略无效的令牌吊销消息: {}", sha256Hex);
+        }
+    }
+
+    /**
+     * 按令牌剩余有效期计算缓存过期时间
+     */
+    private static class PrincipalExpiry implements Expiry<TokenDigest, AuthPrincipal> {
+
+        private final long ttlNanos;
+
+        PrincipalExpiry(Duration ttl) {
+            this.ttlNanos = ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, AuthPrincipal value, long currentTime) {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(value.getExpiresAt() - System.currentTimeMillis());
+            return Math.max(0, Math.min(ttlNanos, remainingNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, AuthPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, AuthPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.luckyh.cloud.gateway.auth;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 令牌摘要
+ * <p>
+ * 取令牌SHA-256摘要的前128位作为缓存键，既避免在内存中保留完整令牌，
+ * 又与auth-service发布的吊销消息（SHA-256十六进制摘要）保持一致。
+ */
+public record TokenDigest(long high, long low) {
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    });
+
+    /**
+     * 计算令牌摘要
+     */
+    public static TokenDigest of(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return new TokenDigest(readLong(hash, 0), readLong(hash, 8));
+    }
+
+    /**
+     * 从SHA-256十六进制摘要还原
+     */
+    public static TokenDigest fromHex(String hex) {
+        return new TokenDigest(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                Long.parseUnsignedLong(hex.substring(16, 32), 16));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            value = (value << 8) | (bytes[i] & 0xFF);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,105 @@
+package com.luckyh.cloud.gateway.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+
+/**
+ * 用户令牌纪元缓存
+ * <p>
+ * 令牌中携带签发时的用户令牌纪元，小于用户当前纪元的令牌视为已吊销。退出所有设备只需auth-service递增一次纪元，
+ * 网关按用户缓存当前纪元，命中时不产生网络调用；收到纪元变更通知后立即更新本地值。
+ */
+@Slf4j
+@Component
+public class TokenEpochCache {
+
+    private static final Mono<Boolean> NOT_STALE = Mono.just(Boolean.FALSE);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final AuthProperties authProperties;
+    private final Cache<Long, Long> cache;
+
+    private Disposable epochSubscription;
+
+    public TokenEpochCache(ReactiveStringRedisTemplate redisTemplate,
+                           ReactiveRedisMessageListenerContainer listenerContainer,
+                           AuthProperties authProperties) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.authProperties = authProperties;
+        AuthProperties.Epoch config = authProperties.getEpoch();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(config.getCacheTtl())
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        if (!authProperties.getEpoch().isEnabled()) {
+            return;
+        }
+        epochSubscription = listenerContainer
+                .receive(ChannelTopic.of(RedisConstants.TOKEN_EPOCH_CHANNEL))
+                .doOnNext(message -> apply(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("令牌纪元订阅异常，准备重试: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (epochSubscription != null) {
+            epochSubscription.dispose();
+        }
+    }
+
+    /**
+     * 令牌纪元是否早于用户当前纪元
+     * <p>
+     * 远程校验的身份不带纪元（auth-service已校验），直接返回false。Redis不可用且本地未缓存时与auth-service一致按失败关闭处理：
+     * 返回错误，由认证过滤器以认证服务异常拒绝，避免退出所有设备后的旧令牌在Redis故障期间重新可用。
+     */
+    public Mono<Boolean> isStale(AuthPrincipal principal) {
+        Long tokenEpoch = principal.getTokenEpoch();
+        Long userId = principal.getUserId();
+        if (!authProperties.getEpoch().isEnabled() || tokenEpoch == null || userId == null) {
+            return NOT_STALE;
+        }
+        Long current = cache.getIfPresent(userId);
+        if (current != null) {
+            return Mono.just(tokenEpoch < current);
+        }
+        return redisTemplate.opsForValue().get(RedisConstants.tokenEpochKey(userId))
+                .map(Long::valueOf)
+                .defaultIfEmpty(0L)
+                .doOnNext(epoch -> cache.asMap().merge(userId, epoch, Math::max))
+                .map(epoch -> tokenEpoch < epoch)
+                .onErrorMap(throwable -> new RuntimeException("读取用户令牌纪元失败，用户ID：" + userId, throwable));
+    }
+
+    private void apply(String message) {
+        int separator = message.indexOf(':');
+        try {
+            cache.asMap().merge(Long.valueOf(message.substring(0, separator)),
+                    Long.valueOf(message.substring(separator + 1)), Math::max);
+        } catch (RuntimeException e) {
+            log.warn("忽略无效的令牌纪元消息: {}", message);
+        }
+    }
+}
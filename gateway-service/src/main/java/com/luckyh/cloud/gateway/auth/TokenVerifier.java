@@ -0,0 +1,229 @@
+package com.luckyh.cloud.gateway.auth;
+
+import com.luckyh.cloud.common.core.domain.R;
+import com.luckyh.cloud.common.web.JwtUtils;
+import com.luckyh.cloud.common.web.TokenClaims;
+import com.luckyh.cloud.gateway.config.AuthProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 令牌校验器
+ * <p>
+ * 默认在网关本地校验JWT签名与过期时间，签名通过后才查询黑名单（本地布隆过滤器前置Redis）；
+ * 关闭本地校验时回退到调用auth-service的/auth/validate接口。
+ * 校验通过的身份按令牌摘要缓存，同一令牌的后续请求跳过JWT解析；缓存命中时仍检查黑名单与用户令牌纪元，
+ * 吊销通知丢失或退出所有设备后已缓存的身份同样失效。
+ */
+@Slf4j
+@Component
+public class TokenVerifier {
+
+    private static final String METRIC_NAME = "gateway.auth.validation";
+
+    private final JwtUtils jwtUtils;
+    private final TokenBlacklist tokenBlacklist;
+    private final AuthProperties authProperties;
+    private final TokenCache tokenCache;
+    private final TokenEpochCache tokenEpochCache;
+    private final WebClient webClient;
+
+    private final Counter localAccepted;
+    private final Counter localRejected;
+    private final Counter remoteAccepted;
+    private final Counter remoteRejected;
+
+    public TokenVerifier(JwtUtils jwtUtils,
+                         TokenBlacklist tokenBlacklist,
+                         AuthProperties authProperties,
+                         TokenCache tokenCache,
+                         TokenEpochCache tokenEpochCache,
+                         WebClient.Builder loadBalancedWebClientBuilder,
+                         MeterRegistry meterRegistry) {
+        this.jwtUtils = jwtUtils;
+        this.tokenBlacklist = tokenBlacklist;
+        this.authProperties = authProperties;
+        this.tokenCache = tokenCache;
+        this.tokenEpochCache = tokenEpochCache;
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .baseUrl("http://auth-service")
+                .build();
+        this.localAccepted = counter(meterRegistry, "local", "accepted");
+        this.localRejected = counter(meterRegistry, "local", "rejected");
+        this.remoteAccepted = counter(meterRegistry, "remote", "accepted");
+        this.remoteRejected = counter(meterRegistry, "remote", "rejected");
+    }
+
+    /**
+     * 校验令牌
+     *
+     * @param token 去掉Bearer前缀的令牌
+     * @return 校验通过时返回用户身份，否则返回空
+     */
+    public Mono<AuthPrincipal> verify(String token) {
+        if (!tokenCache.isEnabled()) {
+            return doVerify(token).flatMap(this::checkEpoch);
+        }
+
+        TokenDigest digest = TokenDigest.of(token);
+        AuthPrincipal cached = tokenCache.get(digest);
+        if (cached != null) {
+            // 吊销通知丢失时缓存不会失效，命中后仍需检查黑名单
+            return checkRevoked(digest, token, cached).flatMap(this::checkEpoch);
+        }
+        return doVerify(token)
+                .doOnNext(principal -> tokenCache.put(digest, principal))
+                .flatMap(this::checkEpoch);
+    }
+
+    /**
+     * 缓存命中的令牌已被吊销时拒绝并失效缓存
+     */
+    private Mono<AuthPrincipal> checkRevoked(TokenDigest digest, String token, AuthPrincipal principal) {
+        if (!authProperties.isCheckBlacklist()) {
+            return Mono.just(principal);
+        }
+        return tokenBlacklist.isRevoked(digest, token)
+                .flatMap(revoked -> {
+                    if (Boolean.TRUE.equals(revoked)) {
+                        tokenCache.invalidate(digest);
+                        localRejected.increment();
+                        return Mono.empty();
+                    }
+                    return Mono.just(principal);
+                });
+    }
+
+    /**
+     * 令牌纪元早于用户当前纪元时拒绝
+     */
+    private Mono<AuthPrincipal> checkEpoch(AuthPrincipal principal) {
+        return tokenEpochCache.isStale(principal)
+                .flatMap(stale -> {
+                    if (Boolean.TRUE.equals(stale)) {
+                        localRejected.increment();
+                        return Mono.empty();
+                    }
+                    return Mono.just(principal);
+                });
+    }
+
+    private Mono<AuthPrincipal> doVerify(String token) {
+        if (!authProperties.isLocalValidation()) {
+            return verifyRemote(token);
+        }
+
+        Claims claims = jwtUtils.getClaimsFromToken(token);
+        // 刷新令牌只能用于/auth/refresh，不能作为访问令牌
+        if (claims == null || TokenClaims.TYPE_REFRESH.equals(claims.get(TokenClaims.TYPE))) {
+            localRejected.increment();
+            return Mono.empty();
+        }
+
+        AuthPrincipal principal = toPrincipal(claims);
+        if (!authProperties.isCheckBlacklist()) {
+            localAccepted.increment();
+            return Mono.just(principal);
+        }
+
+        return tokenBlacklist.isRevoked(token)
+                .flatMap(blacklisted -> {
+                    if (Boolean.TRUE.equals(blacklisted)) {
+                        localRejected.increment();
+                        return Mono.empty();
+                    }
+                    localAccepted.increment();
+                    return Mono.just(principal);
+                });
+    }
+
+    /**
+     * 远程校验令牌
+     */
+    private Mono<AuthPrincipal> verifyRemote(String token) {
+        return webClient.get()
+                .uri("/auth/validate")
+                .header("Authorization", "Bearer " + token)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<R<Map<String, Object>>>() {
+                })
+                .filter(result -> result.isSuccess() && result.getData() != null)
+                .map(result -> toPrincipal(result.getData()))
+                .doOnNext(principal -> remoteAccepted.increment())
+                .switchIfEmpty(Mono.fromRunnable(remoteRejected::increment))
+                .onErrorResume(throwable -> {
+                    log.warn("远程令牌校验失败: {}", throwable.getMessage());
+                    remoteRejected.increment();
+                    return Mono.empty();
+                });
+    }
+
+    private static AuthPrincipal toPrincipal(Claims claims) {
+        AuthPrincipal principal = new AuthPrincipal();
+        principal.setUserId(toLong(claims.get("userId")));
+        principal.setUsername(claims.getSubject());
+        principal.setRealName(claims.get("realName", String.class));
+        principal.setUserType(toInteger(claims.get("userType")));
+        principal.setRoles(toStringList(claims.get("roles")));
+        principal.setExpiresAt(claims.getExpiration().getTime());
+        // 旧令牌不带纪元时按0处理，退出所有设备后同样失效
+        Long epoch = toLong(claims.get(TokenClaims.EPOCH));
+        principal.setTokenEpoch(epoch != null ? epoch : 0L);
+        return principal;
+    }
+
+    private static AuthPrincipal toPrincipal(Map<String, Object> userInfo) {
+        AuthPrincipal principal = new AuthPrincipal();
+        principal.setUserId(toLong(userInfo.get("id")));
+        principal.setUsername((String) userInfo.get("username"));
+        principal.setRealName((String) userInfo.get("realName"));
+        principal.setUserType(toInteger(userInfo.get("userType")));
+        // 远程校验同样需要角色，否则ROLE策略在远程模式下一律拒绝
+        principal.setRoles(toStringList(userInfo.get("roles")));
+        return principal;
+    }
+
+    private static Long toLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number ? ((Number) value).longValue() : Long.valueOf(value.toString());
+    }
+
+    private static Integer toInteger(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof Number ? ((Number) value).intValue() : Integer.valueOf(value.toString());
+    }
+
+    private static List<String> toStringList(Object value) {
+        if (!(value instanceof List<?> list) || list.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> result = new ArrayList<>(list.size());
+        for (Object item : list) {
+            result.add(String.valueOf(item));
+        }
+        return result;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String mode, String result) {
+        return Counter.builder(METRIC_NAME)
+                .description("网关令牌校验结果计数")
+                .tag("mode", mode)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,16 @@
+package com.luckyh.cloud.gateway.cache;
+
+/**
+ * 缓存的响应
+ *
+ * @param contentType 响应的Content-Type
+ * @param etag        响应体摘要，带双引号的强校验ETag
+ * @param body        响应体
+ * @param expiresAt   过期时间（毫秒时间戳）
+ */
+public record CachedResponse(String contentType, String etag, byte[] body, long expiresAt) {
+
+    public boolean isExpired() {
+        return expiresAt <= System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,85 @@
+package com.luckyh.cloud.gateway.cache;
+
+import cn.hutool.core.util.StrUtil;
+import com.luckyh.cloud.gateway.config.ResponseCacheProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 响应缓存路由规则
+ * <p>
+ * 持有由gateway.response-cache.routes解析出的路径模式，Nacos配置刷新后重新解析并原子替换。
+ */
+@Slf4j
+@Component
+public class ResponseCacheRules {
+
+    private final ResponseCacheProperties properties;
+
+    private volatile List<Rule> rules;
+
+    public ResponseCacheRules(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.rules = compile();
+    }
+
+    /**
+     * 查找路径对应的缓存规则
+     *
+     * @return 未配置缓存时返回null
+     */
+    public Rule match(PathContainer path) {
+        for (Rule rule : rules) {
+            if (rule.pattern().matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 配置刷新后重新解析规则
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        try {
+            rules = compile();
+        } catch (RuntimeException e) {
+            log.error("响应缓存规则解析失败，继续使用旧规则", e);
+        }
+    }
+
+    private List<Rule> compile() {
+        List<Rule> compiled = new ArrayList<>();
+        for (ResponseCacheProperties.Route route : properties.getRoutes()) {
+            if (StrUtil.isBlank(route.getPath()) || route.getTtl() == null || route.getTtl().isNegative()
+                    || route.getTtl().isZero()) {
+                log.warn("忽略无效的响应缓存规则: {}", route);
+                continue;
+            }
+            compiled.add(new Rule(PathPatternParser.defaultInstance.parse(route.getPath()),
+                    route.getTtl(), route.isUserScoped()));
+        }
+        log.info("加载响应缓存规则{}条", compiled.size());
+        return List.copyOf(compiled);
+    }
+
+    /**
+     * 缓存规则
+     *
+     * @param pattern    路径模式
+     * @param ttl        缓存存活时间
+     * @param userScoped 是否按用户隔离
+     */
+    public record Rule(PathPattern pattern, Duration ttl, boolean userScoped) {
+    }
+}
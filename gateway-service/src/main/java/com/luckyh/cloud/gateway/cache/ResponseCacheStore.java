@@ -0,0 +1,235 @@
+package com.luckyh.cloud.gateway.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.ReactiveRedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应缓存存储
+ * <p>
+ * 一级缓存为本地Caffeine，按响应体大小加权淘汰；开启后以Redis作为二级缓存，
+ * 本地未命中时查询Redis并回填本地缓存。Redis异常按未命中处理。
+ * <p>
+ * 缓存键按资源路径建立索引（本地为内存索引，Redis为set），写操作修改资源后按路径失效该资源
+ * 所有用户与查询参数的缓存，并通过Redis频道通知其他网关实例失效各自的本地缓存。
+ */
+@Slf4j
+@Component
+public class ResponseCacheStore {
+
+    private static final String CACHE_NAME = "gatewayResponseCache";
+
+    // 每个条目除响应体外的估算开销
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final ResponseCacheProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final ReactiveRedisMessageListenerContainer listenerContainer;
+    private final Cache<String, CachedResponse> cache;
+    private final ConcurrentMap<String, Set<String>> pathIndex = new ConcurrentHashMap<>();
+
+    private Disposable evictSubscription;
+
+    public ResponseCacheStore(ResponseCacheProperties properties,
+                              ReactiveStringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              ReactiveRedisMessageListenerContainer listenerContainer,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.listenerContainer = listenerContainer;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> key.length() * 2 + value.body().length + ENTRY_OVERHEAD)
+                .expireAfter(new ResponseExpiry())
+                // 同步回调，淘汰与过期的条目同时移出路径索引
+                .evictionListener((String key, CachedResponse value, RemovalCause cause) -> unindex(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * 订阅其他网关实例的缓存失效通知
+     */
+    @PostConstruct
+    public void subscribe() {
+        evictSubscription = listenerContainer
+                .receive(ChannelTopic.of(RedisConstants.GATEWAY_RESPONSE_EVICT_CHANNEL))
+                .doOnNext(message -> evictLocal(message.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("响应缓存失效订阅异常，准备重试: {}", signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (evictSubscription != null) {
+            evictSubscription.dispose();
+        }
+    }
+
+    /**
+     * 查询缓存
+     *
+     * @return 未命中时返回空
+     */
+    public Mono<CachedResponse> get(String key) {
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        if (!properties.isRedisEnabled()) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.opsForValue().get(RedisConstants.GATEWAY_RESPONSE_PREFIX + key)
+                .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CachedResponse.class)))
+                .filter(response -> !response.isExpired())
+                // 回填同样建立路径索引，否则其他实例的写操作无法失效回填的条目
+                .doOnNext(response -> putLocal(pathOf(key), key, response))
+                .onErrorResume(throwable -> {
+                    log.warn("读取Redis响应缓存失败: {}", throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 写入缓存，Redis写入异步进行，不阻塞响应
+     *
+     * @param path 资源路径，写操作按该路径失效缓存
+     * @param key  缓存键
+     */
+    public void put(String path, String key, CachedResponse response, Duration ttl) {
+        putLocal(path, key, response);
+        if (!properties.isRedisEnabled()) {
+            return;
+        }
+
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            log.warn("序列化响应缓存失败: {}", e.getMessage());
+            return;
+        }
+        String indexKey = RedisConstants.GATEWAY_RESPONSE_INDEX_PREFIX + path;
+        redisTemplate.opsForValue().set(RedisConstants.GATEWAY_RESPONSE_PREFIX + key, json, ttl)
+                .then(redisTemplate.opsForSet().add(indexKey, key))
+                .then(redisTemplate.expire(indexKey, ttl))
+                .subscribe(null, throwable -> log.warn("写入Redis响应缓存失败: {}", throwable.getMessage()));
+    }
+
+    /**
+     * 失效资源路径下所有用户与查询参数的缓存，并通知其他网关实例
+     */
+    public Mono<Void> evict(String path) {
+        evictLocal(path);
+        Mono<Void> evictRedis = Mono.empty();
+        if (properties.isRedisEnabled()) {
+            String indexKey = RedisConstants.GATEWAY_RESPONSE_INDEX_PREFIX + path;
+            evictRedis = redisTemplate.opsForSet().members(indexKey)
+                    .map(key -> RedisConstants.GATEWAY_RESPONSE_PREFIX + key)
+                    .concatWithValues(indexKey)
+                    .collectList()
+                    .flatMap(keys -> redisTemplate.delete(keys.toArray(new String[0])))
+                    .then();
+        }
+        return evictRedis
+                .then(redisTemplate.convertAndSend(RedisConstants.GATEWAY_RESPONSE_EVICT_CHANNEL, path))
+                .then()
+                .onErrorResume(throwable -> {
+                    log.warn("失效响应缓存失败，路径：{}，原因：{}", path, throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private void putLocal(String path, String key, CachedResponse response) {
+        cache.put(key, response);
+        // 先写缓存再建索引：并发淘汰最多留下指向已不存在条目的索引，不会漏掉存在的条目
+        pathIndex.compute(path, (p, keys) -> {
+            Set<String> indexed = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            indexed.add(key);
+            return indexed;
+        });
+    }
+
+    private void evictLocal(String path) {
+        Set<String> keys = pathIndex.remove(path);
+        if (keys != null) {
+            cache.invalidateAll(keys);
+        }
+    }
+
+    private void unindex(String key) {
+        pathIndex.computeIfPresent(pathOf(key), (path, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * 构建缓存键，格式为"用户范围:路径?查询参数"
+     *
+     * @param scope 用户ID，不按用户隔离时为"-"
+     * @param query 原始查询参数，可为null
+     */
+    public static String key(String scope, String path, String query) {
+        return query == null ? scope + ':' + path : scope + ':' + path + '?' + query;
+    }
+
+    /**
+     * 从缓存键中取出资源路径，用户范围不含冒号
+     */
+    static String pathOf(String key) {
+        int start = key.indexOf(':') + 1;
+        int end = key.indexOf('?', start);
+        return end < 0 ? key.substring(start) : key.substring(start, end);
+    }
+
+    /**
+     * 按响应自身的过期时间计算缓存过期时间
+     */
+    private static class ResponseExpiry implements Expiry<String, CachedResponse> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+            return Math.max(0, TimeUnit.MILLISECONDS.toNanos(value.expiresAt() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedResponse value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
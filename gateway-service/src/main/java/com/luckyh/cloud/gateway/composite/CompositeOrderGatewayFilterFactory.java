@@ -0,0 +1,182 @@
+package com.luckyh.cloud.gateway.composite;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.common.core.domain.R;
+import com.luckyh.cloud.gateway.config.CompositeProperties;
+import com.luckyh.cloud.gateway.error.GatewayError;
+import com.luckyh.cloud.gateway.error.GatewayErrorResponses;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 订单详情聚合过滤器
+ * <p>
+ * 在网关事件循环上非阻塞地获取订单（不让order-service通过Feign同步查询用户），
+ * 再经{@link UserBatchLoader}批量获取下单用户，合并为与/api/order/orders/{id}相同结构的响应。
+ * 过滤器直接输出响应，不再转发到路由的uri。用户信息获取失败时与订单服务一致，userInfo为空，
+ * 并以Cache-Control: no-store标记为不可缓存。
+ * <pre>
+ * filters:
+ *   - CompositeOrder
+ * </pre>
+ */
+@Slf4j
+@Component
+public class CompositeOrderGatewayFilterFactory extends AbstractGatewayFilterFactory<Object> {
+
+    private static final ParameterizedTypeReference<R<Map<String, Object>>> RESULT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    // 透传给order-service的请求头
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            HttpHeaders.AUTHORIZATION,
+            "X-Request-Id",
+            CommonConstants.HEADER_USER_ID,
+            CommonConstants.HEADER_USERNAME,
+            CommonConstants.HEADER_REAL_NAME,
+            CommonConstants.HEADER_USER_TYPE);
+
+    // 与OrderVO.UserInfo一致的用户字段
+    private static final List<String> USER_INFO_FIELDS = List.of("id", "username", "realName", "email", "phone");
+
+    private final CompositeProperties properties;
+    private final UserBatchLoader userBatchLoader;
+    private final ObjectMapper objectMapper;
+    private final WebClient webClient;
+
+    public CompositeOrderGatewayFilterFactory(CompositeProperties properties,
+                                              UserBatchLoader userBatchLoader,
+                                              ObjectMapper objectMapper,
+                                              WebClient.Builder loadBalancedWebClientBuilder) {
+        super(Object.class);
+        this.properties = properties;
+        this.userBatchLoader = userBatchLoader;
+        this.objectMapper = objectMapper;
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .baseUrl("http://order-service")
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Object config) {
+        // 路由加载时检查：未配置服务凭证时user-service拒绝全部批量查询，聚合响应的userInfo恒为空
+        if (!StringUtils.hasText(properties.getServiceToken())) {
+            log.warn("已启用订单详情聚合路由，但未配置gateway.composite.service-token（SERVICE_TOKEN），"
+                    + "user-service将拒绝批量查询，聚合响应中的userInfo均为空");
+        }
+        return (exchange, chain) -> compose(exchange);
+    }
+
+    private Mono<Void> compose(ServerWebExchange exchange) {
+        Long orderId = parseOrderId(exchange);
+        if (orderId == null) {
+            return GatewayErrorResponses.write(exchange, GatewayError.BAD_REQUEST);
+        }
+
+        return fetchOrder(exchange, orderId)
+                .flatMap(result -> {
+                    if (!result.isSuccess() || result.getData() == null) {
+                        return writeJson(exchange, toBody(result));
+                    }
+                    Map<String, Object> order = result.getData();
+                    return loadUserInfo(order.get("userId"))
+                            .doOnNext(userInfo -> order.put("userInfo", userInfo))
+                            // 缺少用户信息的降级响应不允许被缓存
+                            .switchIfEmpty(Mono.fromRunnable(() ->
+                                    exchange.getResponse().getHeaders().setCacheControl("no-store")))
+                            .then(Mono.defer(() -> writeJson(exchange, toBody(result))));
+                })
+                .onErrorResume(throwable -> {
+                    log.warn("订单详情聚合失败，订单ID：{}，原因：{}", orderId, throwable.getMessage());
+                    return GatewayErrorResponses.write(exchange, GatewayError.BAD_GATEWAY);
+                });
+    }
+
+    private Mono<R<Map<String, Object>>> fetchOrder(ServerWebExchange exchange, Long orderId) {
+        HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+        return webClient.get()
+                .uri(builder -> builder.path("/orders/{id}").queryParam("withUser", false).build(orderId))
+                .headers(headers -> {
+                    for (String name : FORWARDED_HEADERS) {
+                        List<String> values = requestHeaders.get(name);
+                        if (values != null) {
+                            headers.put(name, values);
+                        }
+                    }
+                })
+                .retrieve()
+                .bodyToMono(RESULT_TYPE)
+                .timeout(properties.getTimeout());
+    }
+
+    private Mono<Map<String, Object>> loadUserInfo(Object userId) {
+        if (!(userId instanceof Number number)) {
+            return Mono.empty();
+        }
+        return userBatchLoader.load(number.longValue())
+                .map(user -> {
+                    Map<String, Object> userInfo = new LinkedHashMap<>();
+                    for (String field : USER_INFO_FIELDS) {
+                        userInfo.put(field, user.get(field));
+                    }
+                    return userInfo;
+                })
+                .onErrorResume(throwable -> Mono.empty());
+    }
+
+    /**
+     * 与下游服务Result一致的响应结构
+     */
+    private static Map<String, Object> toBody(R<Map<String, Object>> result) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("code", result.getCode());
+        body.put("message", result.getMessage());
+        body.put("data", result.getData());
+        return body;
+    }
+
+    private Mono<Void> writeJson(ServerWebExchange exchange, Object body) {
+        byte[] bytes;
+        try {
+            bytes = objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(bytes.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(bytes)));
+    }
+
+    private static Long parseOrderId(ServerWebExchange exchange) {
+        String id = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get("id");
+        if (id == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.luckyh.cloud.gateway.composite;
+
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.common.core.domain.R;
+import com.luckyh.cloud.gateway.config.CompositeProperties;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 用户信息批量加载器
+ * <p>
+ * 并发聚合请求中的用户查询在一个短窗口内攒批，合并为一次user-service的/users/batch调用，
+ * 同一窗口内重复的用户ID只查询一次。窗口到期或攒满userBatchMaxSize个用户时发出请求。
+ * /users/batch为内部接口，网关对外禁止访问，这里直连user-service并携带服务凭证。
+ */
+@Slf4j
+@Component
+public class UserBatchLoader {
+
+    private static final ParameterizedTypeReference<R<List<Map<String, Object>>>> RESULT_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
+    private final CompositeProperties properties;
+    private final WebClient webClient;
+    private final DistributionSummary batchSize;
+
+    private final Object lock = new Object();
+    // 由lock保护
+    private Map<Long, Sinks.One<Map<String, Object>>> pending = new HashMap<>();
+
+    public UserBatchLoader(CompositeProperties properties,
+                           WebClient.Builder loadBalancedWebClientBuilder,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.webClient = loadBalancedWebClientBuilder.clone()
+                .baseUrl("http://user-service")
+                .build();
+        this.batchSize = DistributionSummary.builder("gateway.composite.user.batch.size")
+                .description("聚合接口每次批量查询的用户数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 加载用户信息
+     *
+     * @return 用户不存在时返回空
+     */
+    public Mono<Map<String, Object>> load(Long userId) {
+        Sinks.One<Map<String, Object>> sink;
+        Map<Long, Sinks.One<Map<String, Object>>> full = null;
+        boolean firstInWindow = false;
+
+        synchronized (lock) {
+            sink = pending.get(userId);
+            if (sink == null) {
+                sink = Sinks.one();
+                pending.put(userId, sink);
+                firstInWindow = pending.size() == 1;
+                if (pending.size() >= properties.getUserBatchMaxSize()) {
+                    full = pending;
+                    pending = new HashMap<>();
+                }
+            }
+        }
+
+        if (full != null) {
+            dispatch(full);
+        } else if (firstInWindow) {
+            Mono.delay(properties.getUserBatchWindow()).subscribe(tick -> flush());
+        }
+        return sink.asMono();
+    }
+
+    private void flush() {
+        Map<Long, Sinks.One<Map<String, Object>>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Map<Long, Sinks.One<Map<String, Object>>> batch) {
+        batchSize.record(batch.size());
+        String ids = batch.keySet().stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+
+        webClient.get()
+                .uri(builder -> builder.path("/users/batch").queryParam("ids", ids).build())
+                .header(CommonConstants.HEADER_SERVICE_TOKEN, properties.getServiceToken())
+                .retrieve()
+                .bodyToMono(RESULT_TYPE)
+                .timeout(properties.getTimeout())
+                .subscribe(result -> complete(batch, result), throwable -> {
+                    log.warn("批量查询用户信息失败，用户数：{}，原因：{}", batch.size(), throwable.getMessage());
+                    batch.values().forEach(sink -> sink.tryEmitError(throwable));
+                }, () -> batch.values().forEach(Sinks.One::tryEmitEmpty));
+    }
+
+    private static void complete(Map<Long, Sinks.One<Map<String, Object>>> batch,
+                                 R<List<Map<String, Object>>> result) {
+        if (result.isSuccess() && result.getData() != null) {
+            for (Map<String, Object> user : result.getData()) {
+                Object id = user.get("id");
+                if (id instanceof Number number) {
+                    Sinks.One<Map<String, Object>> sink = batch.get(number.longValue());
+                    if (sink != null) {
+                        sink.tryEmitValue(user);
+                    }
+                }
+            }
+        } else {
+            log.warn("批量查询用户信息失败: {}", result.getMessage());
+        }
+        // 未返回的用户视为不存在
+        batch.values().forEach(Sinks.One::tryEmitEmpty);
+    }
+}
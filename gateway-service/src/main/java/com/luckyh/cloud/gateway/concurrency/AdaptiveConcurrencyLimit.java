@@ -0,0 +1,109 @@
+package com.luckyh.cloud.gateway.concurrency;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 自适应并发上限
+ * <p>
+ * Vegas风格：以观测到的最小延迟作为无负载延迟，按 limit * (1 - rttNoLoad / rtt) 估算下游排队的请求数，
+ * 排队少时加性增大上限，排队多时加性减小上限；下游出错或超时时乘性衰减。
+ * 只有在并发数接近上限时才增大上限，避免空闲路由的上限无限增长。
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double alpha;
+    private final double beta;
+    private final int probeInterval;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // 以下字段由update方法的锁保护
+    private double estimatedLimit;
+    private long rttNoLoad;
+    private int samples;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                    double alpha, double beta, int probeInterval) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.probeInterval = probeInterval;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * 尝试占用一个并发名额
+     *
+     * @param headroom 允许使用的上限倍数，普通路由为1
+     * @return 超出上限时返回false
+     */
+    public boolean tryAcquire(double headroom) {
+        int max = (int) (limit * headroom);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= max) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 释放并发名额并记录本次请求的延迟
+     *
+     * @param rttNanos 请求耗时
+     * @param dropped  下游是否出错或超时
+     */
+    public void release(long rttNanos, boolean dropped) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        update(rttNanos, inFlightAtRelease, dropped);
+    }
+
+    /**
+     * 释放并发名额但不作为延迟样本，用于客户端取消的请求
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inFlightAtRelease, boolean dropped) {
+        if (dropped) {
+            estimatedLimit = estimatedLimit * backoffRatio;
+        } else if (rttNanos > 0) {
+            if (++samples >= probeInterval) {
+                samples = 0;
+                rttNoLoad = rttNanos;
+            } else if (rttNoLoad == 0 || rttNanos < rttNoLoad) {
+                rttNoLoad = rttNanos;
+            }
+
+            double queueSize = estimatedLimit * (1 - (double) rttNoLoad / rttNanos);
+            double scale = Math.max(1, Math.log10(estimatedLimit));
+            if (queueSize > beta * scale) {
+                estimatedLimit -= 1;
+            } else if (queueSize < alpha * scale && inFlightAtRelease * 2 >= estimatedLimit) {
+                estimatedLimit += 1;
+            }
+        }
+
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit));
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,97 @@
+package com.luckyh.cloud.gateway.concurrency;
+
+import com.luckyh.cloud.gateway.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 按路由维护自适应并发上限
+ * <p>
+ * 每个路由首次请求时创建并注册指标：gateway.concurrency.limit、gateway.concurrency.inflight
+ * 与gateway.concurrency.rejected，均以route标签区分。
+ * 配置刷新后按新参数重建，已在途的请求仍释放到旧的上限对象上。
+ */
+@Component
+public class ConcurrencyLimiterRegistry {
+
+    private final ConcurrencyLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, AdaptiveConcurrencyLimit> limits = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimiterRegistry(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 获取路由的并发上限
+     */
+    public AdaptiveConcurrencyLimit get(String routeId) {
+        AdaptiveConcurrencyLimit limit = limits.get(routeId);
+        if (limit != null) {
+            return limit;
+        }
+        return limits.computeIfAbsent(routeId, id -> {
+            registerGauges(id);
+            return newLimit();
+        });
+    }
+
+    /**
+     * 路由过载时的并发上限倍数
+     */
+    public double headroom(String routeId) {
+        return properties.getPriorityRoutes().contains(routeId) ? properties.getPriorityHeadroom() : 1.0;
+    }
+
+    /**
+     * 记录一次拒绝
+     */
+    public void rejected(String routeId) {
+        rejectedCounters.computeIfAbsent(routeId, id -> Counter.builder("gateway.concurrency.rejected")
+                .description("超出并发上限被拒绝的请求数")
+                .tag("route", id)
+                .register(meterRegistry)).increment();
+    }
+
+    /**
+     * 配置刷新后按新参数重建所有路由的并发上限
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        limits.replaceAll((id, old) -> newLimit());
+    }
+
+    private AdaptiveConcurrencyLimit newLimit() {
+        return new AdaptiveConcurrencyLimit(properties.getInitialLimit(), properties.getMinLimit(),
+                properties.getMaxLimit(), properties.getBackoffRatio(), properties.getAlpha(),
+                properties.getBeta(), properties.getProbeInterval());
+    }
+
+    private void registerGauges(String routeId) {
+        // 指标按路由ID读取当前的上限对象，配置刷新替换对象后仍然有效
+        Gauge.builder("gateway.concurrency.limit", limits, map -> valueOf(map.get(routeId), true))
+                .description("路由当前的自适应并发上限")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limits, map -> valueOf(map.get(routeId), false))
+                .description("路由当前在途的请求数")
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+
+    private static double valueOf(AdaptiveConcurrencyLimit limit, boolean limitValue) {
+        if (limit == null) {
+            return 0;
+        }
+        return limitValue ? limit.getLimit() : limit.getInFlight();
+    }
+}
@@ -0,0 +1,41 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关访问日志配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    /**
+     * 是否输出访问日志
+     */
+    private boolean enabled = true;
+
+    /**
+     * 采样率，取值0~1，1表示每个请求都输出
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * 是否忽略采样率，始终输出5xx请求
+     */
+    private boolean alwaysLogErrors = true;
+
+    /**
+     * 环形缓冲区容量，向上取整为2的幂，写满时丢弃新日志
+     */
+    private int bufferSize = 8192;
+
+    /**
+     * 后台线程批量刷出间隔
+     */
+    private Duration flushInterval = Duration.ofMillis(200);
+}
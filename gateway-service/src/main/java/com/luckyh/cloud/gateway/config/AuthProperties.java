@@ -0,0 +1,180 @@
+package com.luckyh.cloud.gateway.config;
+
+import com.luckyh.cloud.gateway.auth.AuthPolicy;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关认证配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.auth")
+public class AuthProperties {
+
+    /**
+     * 是否在网关本地校验JWT，false时回退到auth-service远程校验
+     */
+    private boolean localValidation = true;
+
+    /**
+     * 本地校验通过后是否检查Redis令牌黑名单
+     */
+    private boolean checkBlacklist = true;
+
+    /**
+     * 未匹配任何路由规则时的认证策略
+     */
+    private AuthPolicy defaultPolicy = AuthPolicy.TOKEN;
+
+    /**
+     * 路由认证规则，按最长路径前缀匹配
+     */
+    private List<Route> routes = defaultRoutes();
+
+    /**
+     * 已校验令牌缓存配置
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * auth-service公钥（JWKS）拉取配置
+     */
+    private Jwks jwks = new Jwks();
+
+    /**
+     * 令牌黑名单布隆过滤器配置
+     */
+    private Blacklist blacklist = new Blacklist();
+
+    /**
+     * 用户令牌纪元校验配置
+     */
+    private Epoch epoch = new Epoch();
+
+    @Data
+    public static class Route {
+
+        /**
+         * 路径前缀，如/api/auth/login或/api/user/admin/**
+         */
+        private String path;
+
+        /**
+         * 认证策略
+         */
+        private AuthPolicy policy = AuthPolicy.TOKEN;
+
+        /**
+         * ROLE策略下允许访问的角色编码，为空时拒绝所有外部请求（用于内部接口）
+         */
+        private List<String> roles = new ArrayList<>();
+
+        public Route() {
+        }
+
+        public Route(String path, AuthPolicy policy) {
+            this.path = path;
+            this.policy = policy;
+        }
+    }
+
+    @Data
+    public static class Cache {
+
+        /**
+         * 是否启用已校验令牌缓存
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         */
+        private long maxSize = 10000;
+
+        /**
+         * 缓存存活时间，实际过期时间不超过令牌本身的exp
+         */
+        private Duration ttl = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Jwks {
+
+        /**
+         * 是否定期拉取JWKS用于校验RS256/EdDSA令牌
+         */
+        private boolean enabled = true;
+
+        /**
+         * JWKS地址，经负载均衡访问
+         */
+        private String uri = "http://auth-service/.well-known/jwks.json";
+
+        /**
+         * 拉取间隔，密钥轮换时新密钥须提前发布超过该间隔再启用签发
+         */
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
+    @Data
+    public static class Blacklist {
+
+        /**
+         * 是否用本地布隆过滤器前置黑名单查询，false时每次校验都查询Redis
+         */
+        private boolean bloomEnabled = true;
+
+        /**
+         * 预期黑名单令牌数，超出后误判率上升
+         */
+        private long expectedInsertions = 100000;
+
+        /**
+         * 误判率，误判的令牌会多查询一次Redis
+         */
+        private double falsePositiveRate = 0.001;
+
+        /**
+         * 从Redis全量重建的间隔，用于清除已过期的令牌及补齐丢失的吊销通知
+         */
+        private Duration rebuildInterval = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class Epoch {
+
+        /**
+         * 是否校验令牌纪元，纪元小于用户当前纪元的令牌视为已吊销
+         */
+        private boolean enabled = true;
+
+        /**
+         * 本地缓存的最大用户数
+         */
+        private long maxSize = 100000;
+
+        /**
+         * 本地缓存时间，纪元变更通知丢失时的最长生效延迟
+         */
+        private Duration cacheTtl = Duration.ofSeconds(30);
+    }
+
+    private static List<Route> defaultRoutes() {
+        List<Route> routes = new ArrayList<>();
+        routes.add(new Route("/api/auth/login", AuthPolicy.PUBLIC));
+        routes.add(new Route("/api/auth/register", AuthPolicy.PUBLIC));
+        routes.add(new Route("/api/auth/refresh", AuthPolicy.PUBLIC));
+        routes.add(new Route("/api/auth/health", AuthPolicy.PUBLIC));
+        routes.add(new Route("/actuator", AuthPolicy.PUBLIC));
+        // 内部接口，仅供网关聚合接口直连调用
+        routes.add(new Route("/api/user/users/batch", AuthPolicy.ROLE));
+        routes.add(new Route("/user-service/users/batch", AuthPolicy.ROLE));
+        return routes;
+    }
+}
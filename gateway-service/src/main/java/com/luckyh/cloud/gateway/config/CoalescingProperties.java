@@ -0,0 +1,44 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 网关请求合并配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.coalescing")
+public class CoalescingProperties {
+
+    /**
+     * 是否合并并发的相同GET请求，启用后仍只处理routes中列出的路由
+     */
+    private boolean enabled = false;
+
+    /**
+     * 参与合并的路由ID，只应列出返回小体积非流式响应的路由
+     */
+    private Set<String> routes = new LinkedHashSet<>();
+
+    /**
+     * 可共享响应体的最大大小，超过时首个请求改为直接透传，跟随请求各自单独转发
+     */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /**
+     * 跟随请求等待首个请求响应的最长时间，超时后单独转发
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * 是否只合并同一用户的请求，响应内容与当前用户相关时必须开启
+     */
+    private boolean userScoped = true;
+}
@@ -0,0 +1,36 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关聚合接口配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.composite")
+public class CompositeProperties {
+
+    /**
+     * 调用下游服务的超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(3);
+
+    /**
+     * 用户查询的攒批窗口，窗口内并发的聚合请求合并为一次批量查询
+     */
+    private Duration userBatchWindow = Duration.ofMillis(5);
+
+    /**
+     * 单次批量查询的最大用户数，达到后立即发出
+     */
+    private int userBatchMaxSize = 100;
+
+    /**
+     * 调用user-service内部接口（/users/batch）的服务凭证，须与user.internal.service-token一致
+     */
+    private String serviceToken;
+}
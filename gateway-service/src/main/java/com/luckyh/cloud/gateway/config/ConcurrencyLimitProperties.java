@@ -0,0 +1,67 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关自适应并发限制配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.concurrency")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * 是否启用自适应并发限制
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每个路由的初始并发上限
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 并发上限的下界
+     */
+    private int minLimit = 5;
+
+    /**
+     * 并发上限的上界
+     */
+    private int maxLimit = 500;
+
+    /**
+     * 下游出错或超时时并发上限的乘性衰减系数
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * 估算排队请求数低于alpha*log10(limit)时增大上限
+     */
+    private double alpha = 3;
+
+    /**
+     * 估算排队请求数高于beta*log10(limit)时减小上限
+     */
+    private double beta = 6;
+
+    /**
+     * 每隔多少个样本重新探测无负载延迟，使基准延迟能跟随下游变化
+     */
+    private int probeInterval = 1000;
+
+    /**
+     * 优先路由ID，过载时这些路由可超出并发上限priority-headroom倍，保证登录与刷新令牌可用
+     */
+    private List<String> priorityRoutes = new ArrayList<>(List.of("auth-service"));
+
+    /**
+     * 优先路由可使用的并发上限倍数
+     */
+    private double priorityHeadroom = 2.0;
+}
@@ -0,0 +1,13 @@
+package com.luckyh.cloud.gateway.config;
+
+import com.luckyh.cloud.gateway.loadbalancer.PeakEwmaLoadBalancerConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 负载均衡配置，lb://路由与网关内的WebClient均使用延迟感知的负载均衡
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = PeakEwmaLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,41 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 网关负载均衡配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class LoadBalancerProperties {
+
+    /**
+     * 是否使用延迟感知的负载均衡，false时使用默认的轮询
+     */
+    private boolean latencyAware = true;
+
+    /**
+     * 延迟EWMA的衰减时间常数，越小越快遗忘历史延迟
+     */
+    private Duration decayTime = Duration.ofSeconds(10);
+
+    /**
+     * 请求失败时按该延迟计入样本，使出错的实例得到更少流量
+     */
+    private Duration failurePenalty = Duration.ofSeconds(1);
+
+    /**
+     * 实例元数据中权重的键，Nacos实例权重默认为1
+     */
+    private String weightMetadataKey = "nacos.weight";
+
+    /**
+     * 实例统计的空闲过期时间，下线或缩容的实例超过该时间未被选中即移除统计；须大于最长的请求耗时
+     */
+    private Duration statsIdleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,79 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 网关限流配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否启用本地预限流，单实例超出限额的请求直接拒绝，不再访问Redis
+     */
+    private boolean localPreLimit = true;
+
+    /**
+     * 本地预限流最多保留的令牌桶数量
+     */
+    private long localMaxBuckets = 100000;
+
+    /**
+     * 从X-Forwarded-For右起第几个地址取客户端IP，等于网关前可信代理（负载均衡、Ingress）的层数；
+     * 0表示不信任X-Forwarded-For，直接使用TCP连接的对端地址
+     */
+    private int forwardedMaxTrustedIndex = 0;
+
+    /**
+     * 按客户端IP限流
+     */
+    private Bucket ip = new Bucket(50, 100);
+
+    /**
+     * 按登录用户限流
+     */
+    private Bucket user = new Bucket(20, 40);
+
+    /**
+     * 按路由ID限流，未配置的路由不做路由级限流
+     */
+    private Map<String, Bucket> routes = new LinkedHashMap<>();
+
+    @Data
+    public static class Bucket {
+
+        /**
+         * 每秒补充的令牌数，小于等于0表示不限流
+         */
+        private double replenishRate;
+
+        /**
+         * 令牌桶容量，即允许的突发请求数
+         */
+        private int burstCapacity;
+
+        public Bucket() {
+        }
+
+        public Bucket(double replenishRate, int burstCapacity) {
+            this.replenishRate = replenishRate;
+            this.burstCapacity = burstCapacity;
+        }
+
+        public boolean isEnabled() {
+            return replenishRate > 0 && burstCapacity > 0;
+        }
+    }
+}
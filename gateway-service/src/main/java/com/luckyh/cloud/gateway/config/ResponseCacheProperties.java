@@ -0,0 +1,63 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关响应缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheProperties {
+
+    /**
+     * 是否启用响应缓存，启用后仍只缓存routes中配置的GET请求
+     */
+    private boolean enabled = false;
+
+    /**
+     * 本地缓存的最大总容量，按响应体大小淘汰
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 单个响应体的最大大小，超过时不缓存
+     */
+    private DataSize maxEntrySize = DataSize.ofKilobytes(256);
+
+    /**
+     * 是否使用Redis作为二级缓存，多个网关实例共享缓存
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * 可缓存的路由
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * 路径模式，如/api/user/users/{id}
+         */
+        private String path;
+
+        /**
+         * 缓存存活时间
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+
+        /**
+         * 是否按用户隔离缓存，响应内容与当前用户相关时必须开启
+         */
+        private boolean userScoped = true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.luckyh.cloud.gateway.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * 下游HTTP客户端配置
+ * <p>
+ * 网关路由转发与过滤器中的WebClient共用同一个{@link HttpClient}及其连接池，
+ * 突发流量复用已建立的连接，不再为每个请求建立TCP连接。
+ * 定义HttpClient后Spring Cloud Gateway不再创建默认客户端，响应超时仍由路由过滤器按
+ * spring.cloud.gateway.httpclient.response-timeout逐请求设置。
+ */
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    private static final String POOL_NAME = "gateway-upstream";
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider(UpstreamPoolProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getEvictionInterval())
+                .metrics(properties.isMetrics())
+                .build();
+    }
+
+    @Bean
+    public HttpClient gatewayHttpClient(ConnectionProvider upstreamConnectionProvider,
+                                        UpstreamPoolProperties properties,
+                                        HttpClientProperties httpClientProperties) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .keepAlive(true)
+                .option(ChannelOption.SO_KEEPALIVE, true);
+        if (httpClientProperties.getConnectTimeout() != null) {
+            httpClient = httpClient.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, httpClientProperties.getConnectTimeout());
+        }
+        if (properties.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+}
@@ -0,0 +1,58 @@
+package com.luckyh.cloud.gateway.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 下游连接池配置
+ * <p>
+ * 连接池按下游实例地址划分，以下限制对每个下游实例分别生效。
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.upstream")
+public class UpstreamPoolProperties {
+
+    /**
+     * 每个下游实例的最大连接数
+     */
+    private int maxConnections = 200;
+
+    /**
+     * 连接耗尽时等待获取连接的最大请求数，超出后立即失败
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    /**
+     * 等待获取连接的超时时间
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 连接最大空闲时间，需小于下游服务的keep-alive超时（Tomcat默认20秒），避免复用已被对端关闭的连接
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(15);
+
+    /**
+     * 连接最大存活时间，定期重建连接使负载均衡能感知新实例
+     */
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    /**
+     * 后台清理空闲与过期连接的间隔
+     */
+    private Duration evictionInterval = Duration.ofSeconds(10);
+
+    /**
+     * 是否优先使用明文HTTP/2（h2c），下游不支持时回退到HTTP/1.1
+     */
+    private boolean h2c = false;
+
+    /**
+     * 是否输出连接池指标（reactor.netty.connection.provider.*）
+     */
+    private boolean metrics = true;
+}
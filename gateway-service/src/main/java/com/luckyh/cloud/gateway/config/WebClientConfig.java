@@ -0,0 +1,25 @@
+package com.luckyh.cloud.gateway.config;
+
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * WebClient配置
+ */
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * 支持lb服务名解析的WebClient构建器，与网关路由共用下游连接池
+     */
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(HttpClient gatewayHttpClient) {
+        return WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(gatewayHttpClient));
+    }
+}
@@ -0,0 +1,69 @@
+package com.luckyh.cloud.gateway.error;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 网关拒绝请求时的错误响应
+ * <p>
+ * 响应体在类加载时编码为只读、不可释放的直接内存缓冲区，输出时只创建共享内容的副本，
+ * 不再逐请求格式化字符串和分配字节数组。
+ */
+public enum GatewayError {
+
+    BAD_REQUEST(HttpStatus.BAD_REQUEST, "请求参数错误"),
+    MISSING_TOKEN(HttpStatus.UNAUTHORIZED, "缺少认证令牌"),
+    INVALID_TOKEN(HttpStatus.UNAUTHORIZED, "认证令牌无效"),
+    AUTH_SERVICE_ERROR(HttpStatus.UNAUTHORIZED, "认证服务异常"),
+    FORBIDDEN(HttpStatus.FORBIDDEN, "权限不足"),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "请求过于频繁，请稍后再试"),
+    BAD_GATEWAY(HttpStatus.BAD_GATEWAY, "下游服务异常"),
+    SERVICE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE, "服务繁忙，请稍后再试");
+
+    private final HttpStatus status;
+    private final String message;
+    private final byte[] bytes;
+    private final ByteBuf payload;
+
+    GatewayError(HttpStatus status, String message) {
+        this.status = status;
+        this.message = message;
+        this.bytes = ("{\"code\":" + status.value() + ",\"message\":\"" + message + "\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        this.payload = Unpooled.unreleasableBuffer(
+                Unpooled.directBuffer(bytes.length).writeBytes(bytes)).asReadOnly();
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 是否需要提示客户端稍后重试
+     */
+    public boolean isRetryable() {
+        return status == HttpStatus.TOO_MANY_REQUESTS || status == HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    int contentLength() {
+        return bytes.length;
+    }
+
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * 共享预编码内容、读写索引独立的缓冲区副本
+     */
+    ByteBuf payload() {
+        return payload.duplicate();
+    }
+}
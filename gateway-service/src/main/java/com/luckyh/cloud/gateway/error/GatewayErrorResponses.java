@@ -0,0 +1,47 @@
+package com.luckyh.cloud.gateway.error;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 网关错误响应输出
+ */
+public final class GatewayErrorResponses {
+
+    private static final MediaType APPLICATION_JSON_UTF8 =
+            new MediaType(MediaType.APPLICATION_JSON, StandardCharsets.UTF_8);
+
+    private static final String RETRY_AFTER_SECONDS = "1";
+
+    private GatewayErrorResponses() {
+    }
+
+    /**
+     * 输出错误响应并结束请求
+     */
+    public static Mono<Void> write(ServerWebExchange exchange, GatewayError error) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(error.getStatus());
+
+        HttpHeaders headers = response.getHeaders();
+        headers.setContentType(APPLICATION_JSON_UTF8);
+        headers.setContentLength(error.contentLength());
+        if (error.isRetryable()) {
+            headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+
+        DataBufferFactory bufferFactory = response.bufferFactory();
+        DataBuffer buffer = bufferFactory instanceof NettyDataBufferFactory nettyBufferFactory
+                ? nettyBufferFactory.wrap(error.payload())
+                : bufferFactory.wrap(error.bytes());
+        return response.writeWith(Mono.just(buffer));
+    }
+}
@@ -1,43 +1,55 @@
 package com.luckyh.cloud.gateway.filter;
 
 import cn.hutool.core.util.StrUtil;
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.gateway.auth.AuthPolicy;
+import com.luckyh.cloud.gateway.auth.AuthPolicyResolver;
+import com.luckyh.cloud.gateway.auth.AuthPrincipal;
+import com.luckyh.cloud.gateway.auth.PathPolicyMatcher;
+import com.luckyh.cloud.gateway.auth.TokenVerifier;
+import com.luckyh.cloud.gateway.error.GatewayError;
+import com.luckyh.cloud.gateway.error.GatewayErrorResponses;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * JWT认证过滤器
+ * <p>
+ * 按gateway.auth.routes中的路由规则决定是否校验令牌及所需角色，
+ * 校验通过后将令牌中的用户身份写入X-User-*请求头转发给下游服务，
+ * 客户端自带的同名请求头及服务间调用凭证一律清除，防止伪造身份。
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class AuthFilter implements GlobalFilter, Ordered {
 
-    private final WebClient webClient;
+    private static final String BEARER_PREFIX = "Bearer ";
 
-    // 不需要认证的路径
-    private static final List<String> EXCLUDE_PATHS = Arrays.asList(
-            "/api/auth/login",
-            "/api/auth/register",
-            "/api/auth/refresh",
-            "/actuator",
-            "/api/auth/health");
+    private final TokenVerifier tokenVerifier;
+    private final AuthPolicyResolver authPolicyResolver;
 
-    public AuthFilter() {
-        this.webClient = WebClient.builder()
-                .baseUrl("http://auth-service")
-                .build();
-    }
+    // 网关注入的身份请求头及服务间调用凭证
+    private static final List<String> IDENTITY_HEADERS = Arrays.asList(
+            CommonConstants.HEADER_USER_ID,
+            CommonConstants.HEADER_USERNAME,
+            CommonConstants.HEADER_REAL_NAME,
+            CommonConstants.HEADER_USER_TYPE,
+            CommonConstants.HEADER_SERVICE_TOKEN);
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
@@ -45,61 +57,95 @@ public class AuthFilter implements GlobalFilter, Ordered {
         String path = request.getURI().getPath();
 
         // 检查是否需要跳过认证
-        if (shouldSkipAuth(path)) {
-            return chain.filter(exchange);
+        PathPolicyMatcher.Rule rule = authPolicyResolver.resolve(path);
+        if (rule.getPolicy() == AuthPolicy.PUBLIC) {
+            return chain.filter(stripIdentityHeaders(exchange));
         }
 
         // 获取Authorization头
         String authHeader = request.getHeaders().getFirst("Authorization");
-        if (StrUtil.isBlank(authHeader) || !authHeader.startsWith("Bearer ")) {
-            return handleUnauthorized(exchange, "缺少认证令牌");
+        if (StrUtil.isBlank(authHeader) || !authHeader.startsWith(BEARER_PREFIX)) {
+            return handleUnauthorized(exchange, GatewayError.MISSING_TOKEN);
         }
 
         // 验证令牌
-        return validateToken(authHeader)
-                .flatMap(isValid -> {
-                    if (isValid) {
-                        return chain.filter(exchange);
-                    } else {
-                        return handleUnauthorized(exchange, "认证令牌无效");
+        return tokenVerifier.verify(authHeader.substring(BEARER_PREFIX.length()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(principal -> {
+                    if (principal.isEmpty()) {
+                        return handleUnauthorized(exchange, GatewayError.INVALID_TOKEN);
+                    }
+                    if (!rule.permits(principal.get().getRoles())) {
+                        return handleForbidden(exchange);
                     }
+                    return chain.filter(withIdentityHeaders(exchange, principal.get()));
                 })
                 .onErrorResume(throwable -> {
                     log.error("令牌验证异常", throwable);
-                    return handleUnauthorized(exchange, "认证服务异常");
+                    return handleUnauthorized(exchange, GatewayError.AUTH_SERVICE_ERROR);
                 });
     }
 
     /**
-     * 检查是否应该跳过认证
+     * 清除客户端伪造的身份请求头
      */
-    private boolean shouldSkipAuth(String path) {
-        return EXCLUDE_PATHS.stream().anyMatch(path::startsWith);
+    private ServerWebExchange stripIdentityHeaders(ServerWebExchange exchange) {
+        if (!containsIdentityHeader(exchange.getRequest().getHeaders())) {
+            return exchange;
+        }
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(httpHeaders -> IDENTITY_HEADERS.forEach(httpHeaders::remove))
+                .build();
+        return exchange.mutate().request(request).build();
+    }
+
+    private boolean containsIdentityHeader(HttpHeaders headers) {
+        for (int i = 0; i < IDENTITY_HEADERS.size(); i++) {
+            if (headers.containsKey(IDENTITY_HEADERS.get(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * 验证令牌
+     * 用令牌中的用户身份覆盖身份请求头
      */
-    private Mono<Boolean> validateToken(String authHeader) {
-        return webClient.get()
-                .uri("/auth/validate")
-                .header("Authorization", authHeader)
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(response -> true)
-                .onErrorReturn(false);
+    private ServerWebExchange withIdentityHeaders(ServerWebExchange exchange, AuthPrincipal principal) {
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .headers(httpHeaders -> {
+                    IDENTITY_HEADERS.forEach(httpHeaders::remove);
+                    if (principal.getUserId() != null) {
+                        httpHeaders.set(CommonConstants.HEADER_USER_ID, principal.getUserId().toString());
+                    }
+                    if (principal.getUsername() != null) {
+                        httpHeaders.set(CommonConstants.HEADER_USERNAME, principal.getUsername());
+                    }
+                    if (principal.getRealName() != null) {
+                        httpHeaders.set(CommonConstants.HEADER_REAL_NAME,
+                                URLEncoder.encode(principal.getRealName(), StandardCharsets.UTF_8));
+                    }
+                    if (principal.getUserType() != null) {
+                        httpHeaders.set(CommonConstants.HEADER_USER_TYPE, principal.getUserType().toString());
+                    }
+                })
+                .build();
+        return exchange.mutate().request(request).build();
     }
 
     /**
      * 处理未授权响应
      */
-    private Mono<Void> handleUnauthorized(ServerWebExchange exchange, String message) {
-        ServerHttpResponse response = exchange.getResponse();
-        response.setStatusCode(HttpStatus.UNAUTHORIZED);
-        response.getHeaders().add("Content-Type", "application/json;charset=UTF-8");
+    private Mono<Void> handleUnauthorized(ServerWebExchange exchange, GatewayError error) {
+        return GatewayErrorResponses.write(exchange, error);
+    }
 
-        String body = String.format("{\"code\":401,\"message\":\"%s\"}", message);
-        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes())));
+    /**
+     * 处理权限不足响应
+     */
+    private Mono<Void> handleForbidden(ServerWebExchange exchange) {
+        return GatewayErrorResponses.write(exchange, GatewayError.FORBIDDEN);
     }
 
     @Override
@@ -0,0 +1,81 @@
+package com.luckyh.cloud.gateway.filter;
+
+import com.luckyh.cloud.gateway.concurrency.AdaptiveConcurrencyLimit;
+import com.luckyh.cloud.gateway.concurrency.ConcurrencyLimiterRegistry;
+import com.luckyh.cloud.gateway.config.ConcurrencyLimitProperties;
+import com.luckyh.cloud.gateway.error.GatewayError;
+import com.luckyh.cloud.gateway.error.GatewayErrorResponses;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 自适应并发限制过滤器
+ * <p>
+ * 按路由限制转发到下游的并发请求数，超出上限的请求立即返回503，不在网关排队等待超时。
+ * 上限根据下游延迟自动调整，见{@link AdaptiveConcurrencyLimit}；下游返回502、503、504或转发异常时视为过载信号。
+ * 在响应缓存与请求合并之后执行，只有真正转发到下游的请求才占用并发名额。
+ */
+@Component
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter implements GlobalFilter, Ordered {
+
+    private final ConcurrencyLimiterRegistry limiterRegistry;
+    private final ConcurrencyLimitProperties properties;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!properties.isEnabled() || route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        AdaptiveConcurrencyLimit limit = limiterRegistry.get(routeId);
+        if (!limit.tryAcquire(limiterRegistry.headroom(routeId))) {
+            limiterRegistry.rejected(routeId);
+            return handleServiceUnavailable(exchange);
+        }
+
+        long startTime = System.nanoTime();
+        return chain.filter(exchange).doFinally(signalType -> {
+            if (signalType == SignalType.CANCEL) {
+                limit.release();
+                return;
+            }
+            boolean dropped = signalType == SignalType.ON_ERROR || isOverloaded(exchange.getResponse().getStatusCode());
+            limit.release(System.nanoTime() - startTime, dropped);
+        });
+    }
+
+    private static boolean isOverloaded(HttpStatusCode statusCode) {
+        if (statusCode == null) {
+            return false;
+        }
+        int status = statusCode.value();
+        return status == HttpStatus.BAD_GATEWAY.value()
+                || status == HttpStatus.SERVICE_UNAVAILABLE.value()
+                || status == HttpStatus.GATEWAY_TIMEOUT.value();
+    }
+
+    /**
+     * 处理服务过载响应
+     */
+    private Mono<Void> handleServiceUnavailable(ServerWebExchange exchange) {
+        return GatewayErrorResponses.write(exchange, GatewayError.SERVICE_UNAVAILABLE);
+    }
+
+    @Override
+    public int getOrder() {
+        return -20; // 在请求合并过滤器之后执行
+    }
+}
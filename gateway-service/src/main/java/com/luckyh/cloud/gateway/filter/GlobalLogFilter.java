@@ -1,10 +1,14 @@
 package com.luckyh.cloud.gateway.filter;
 
-import cn.hutool.core.util.IdUtil;
+import com.luckyh.cloud.gateway.log.AccessLogWriter;
+import com.luckyh.cloud.gateway.log.RequestIdGenerator;
+import com.luckyh.cloud.gateway.metrics.RouteLatencyRecorder;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
@@ -12,36 +16,45 @@ import reactor.core.publisher.Mono;
 
 /**
  * 全局过滤器 - 添加请求ID和日志
+ * <p>
+ * 访问日志由{@link AccessLogWriter}异步批量输出，这里只记录耗时与状态码；
+ * 耗时同时写入按路由与状态码划分的延迟直方图
  */
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class GlobalLogFilter implements GlobalFilter, Ordered {
 
     private static final String REQUEST_ID = "X-Request-Id";
 
+    private final RequestIdGenerator requestIdGenerator;
+    private final AccessLogWriter accessLogWriter;
+    private final RouteLatencyRecorder routeLatencyRecorder;
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String requestId = IdUtil.simpleUUID();
+        long requestSequence = requestIdGenerator.nextSequence();
 
         // 添加请求ID到请求头
         ServerHttpRequest mutatedRequest = request.mutate()
-                .header(REQUEST_ID, requestId)
+                .header(REQUEST_ID, requestIdGenerator.format(requestSequence))
                 .build();
 
         ServerWebExchange mutatedExchange = exchange.mutate()
                 .request(mutatedRequest)
                 .build();
 
-        long startTime = System.currentTimeMillis();
-
-        log.info("请求开始 - RequestId: {}, Method: {}, URI: {}, RemoteAddr: {}",
-                requestId, request.getMethod(), request.getURI(), request.getRemoteAddress());
+        long startTime = System.nanoTime();
 
-        return chain.filter(mutatedExchange).then(Mono.fromRunnable(() -> {
-            long endTime = System.currentTimeMillis();
-            log.info("请求结束 - RequestId: {}, 耗时: {}ms", requestId, endTime - startTime);
-        }));
+        return chain.filter(mutatedExchange).doFinally(signalType -> {
+            long durationNanos = System.nanoTime() - startTime;
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            int status = statusCode != null ? statusCode.value() : 0;
+            routeLatencyRecorder.record(mutatedExchange, status, durationNanos);
+            accessLogWriter.record(requestSequence, request.getMethod().name(), request.getURI(),
+                    request.getRemoteAddress(), status, durationNanos);
+        });
     }
 
     @Override
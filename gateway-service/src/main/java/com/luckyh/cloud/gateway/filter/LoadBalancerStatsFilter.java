@@ -0,0 +1,57 @@
+package com.luckyh.cloud.gateway.filter;
+
+import com.luckyh.cloud.gateway.loadbalancer.InstanceLatencyTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * 负载均衡统计过滤器
+ * <p>
+ * 紧跟负载均衡过滤器执行，记录lb://路由选中实例的在途请求数与耗时，供{@code PeakEwmaLoadBalancer}选择实例。
+ * 转发异常或下游返回5xx视为失败。
+ */
+@Component
+@RequiredArgsConstructor
+public class LoadBalancerStatsFilter implements GlobalFilter, Ordered {
+
+    private final InstanceLatencyTracker tracker;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+        tracker.onStart(instance);
+        long startTime = System.nanoTime();
+        return chain.filter(exchange).doFinally(signalType -> {
+            if (signalType == SignalType.CANCEL) {
+                tracker.onComplete(instance, -1, false);
+                return;
+            }
+            HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+            boolean failed = signalType == SignalType.ON_ERROR
+                    || (statusCode != null && statusCode.is5xxServerError());
+            tracker.onComplete(instance, System.nanoTime() - startTime, failed);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+}
@@ -0,0 +1,125 @@
+package com.luckyh.cloud.gateway.filter;
+
+import cn.hutool.core.util.StrUtil;
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.common.constant.RedisConstants;
+import com.luckyh.cloud.gateway.config.RateLimitProperties;
+import com.luckyh.cloud.gateway.error.GatewayError;
+import com.luckyh.cloud.gateway.error.GatewayErrorResponses;
+import com.luckyh.cloud.gateway.ratelimit.RateLimitKey;
+import com.luckyh.cloud.gateway.ratelimit.TokenBucketRateLimiter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 限流过滤器
+ * <p>
+ * 按客户端IP、登录用户和路由三个维度进行令牌桶限流，速率与容量见gateway.rate-limit配置。
+ * 在认证过滤器之后执行，用户维度使用认证过滤器写入的X-User-Id请求头。
+ * 网关部署在负载均衡之后时，客户端IP按forwarded-max-trusted-index从X-Forwarded-For中取，
+ * 与Spring Cloud Gateway的XForwardedRemoteAddressResolver一致，客户端伪造的左侧地址不会被采用。
+ */
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final RateLimitProperties properties;
+
+    private volatile RemoteAddressResolver remoteAddressResolver;
+
+    @PostConstruct
+    public void init() {
+        int maxTrustedIndex = properties.getForwardedMaxTrustedIndex();
+        remoteAddressResolver = maxTrustedIndex > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(maxTrustedIndex)
+                : new RemoteAddressResolver() {
+                };
+    }
+
+    /**
+     * 配置刷新后按新的可信代理层数重建解析器
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        init();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        return rateLimiter.acquire(resolveKeys(exchange))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(rejected -> rejected.isPresent()
+                        ? handleTooManyRequests(exchange)
+                        : chain.filter(exchange));
+    }
+
+    private List<RateLimitKey> resolveKeys(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        List<RateLimitKey> keys = new ArrayList<>(3);
+
+        RateLimitProperties.Bucket ip = properties.getIp();
+        if (ip.isEnabled()) {
+            // X-Forwarded-For解析出的地址未经DNS解析，使用getHostString而不是getAddress
+            InetSocketAddress remoteAddress = remoteAddressResolver.resolve(exchange);
+            if (remoteAddress != null && StrUtil.isNotBlank(remoteAddress.getHostString())) {
+                keys.add(key("ip", remoteAddress.getHostString(), ip));
+            }
+        }
+
+        RateLimitProperties.Bucket user = properties.getUser();
+        String userId = request.getHeaders().getFirst(CommonConstants.HEADER_USER_ID);
+        if (user.isEnabled() && StrUtil.isNotBlank(userId)) {
+            keys.add(key("user", userId, user));
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route != null) {
+            RateLimitProperties.Bucket routeBucket = properties.getRoutes().get(route.getId());
+            if (routeBucket != null && routeBucket.isEnabled()) {
+                keys.add(key("route", route.getId(), routeBucket));
+            }
+        }
+        return keys;
+    }
+
+    private static RateLimitKey key(String dimension, String value, RateLimitProperties.Bucket bucket) {
+        return new RateLimitKey(dimension, RedisConstants.RATE_LIMIT_PREFIX + dimension + ":" + value,
+                bucket.getReplenishRate(), bucket.getBurstCapacity());
+    }
+
+    /**
+     * 处理请求过于频繁响应
+     */
+    private Mono<Void> handleTooManyRequests(ServerWebExchange exchange) {
+        return GatewayErrorResponses.write(exchange, GatewayError.TOO_MANY_REQUESTS);
+    }
+
+    @Override
+    public int getOrder() {
+        return -40; // 在认证过滤器之后执行
+    }
+}
@@ -0,0 +1,333 @@
+package com.luckyh.cloud.gateway.filter;
+
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.gateway.config.CoalescingProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求合并过滤器
+ * <p>
+ * 只处理gateway.coalescing.routes中列出的路由：同一路由、路径、查询参数、内容协商请求头（Accept、
+ * Accept-Encoding、Accept-Language）和用户的并发GET请求只转发第一个，其余请求等待其响应并共享同一份响应体。
+ * 跟随请求等待超过gateway.coalescing.timeout或首个请求被取消时，改为单独转发。
+ * 带条件请求头（If-None-Match、Range等）的请求响应各不相同，不参与合并。
+ * <p>
+ * 首个请求最多暂存max-body-size的响应体；响应体超出该大小、声明的Content-Length超出该大小或为流式响应
+ * （SSE、NDJSON、writeAndFlushWith）时改为直接透传，跟随请求各自单独转发，不会把整个下载或事件流读入内存。
+ * 在响应缓存过滤器之后执行，缓存未命中的并发请求在这里合并。
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final String METRIC_NAME = "gateway.coalescing.requests";
+    private static final String ANONYMOUS_SCOPE = "-";
+    private static final byte[] EMPTY_BODY = new byte[0];
+    private static final List<String> NEGOTIATION_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+    private static final List<MediaType> STREAMING_TYPES = List.of(
+            MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON);
+
+    private final CoalescingProperties properties;
+    private final ConcurrentMap<String, Flight> inflight = new ConcurrentHashMap<>();
+
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public RequestCoalescingFilter(CoalescingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.leaders = counter(meterRegistry, "leader");
+        this.followers = counter(meterRegistry, "follower");
+        this.fallbacks = counter(meterRegistry, "fallback");
+        Gauge.builder("gateway.coalescing.inflight", inflight, ConcurrentMap::size)
+                .description("正在进行的合并请求数")
+                .register(meterRegistry);
+        Gauge.builder("gateway.coalescing.ratio", this, RequestCoalescingFilter::coalescingRatio)
+                .description("被合并的请求占参与合并请求的比例")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() != HttpMethod.GET || isConditional(request)
+                || acceptsStream(request)) {
+            return chain.filter(exchange);
+        }
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null || !properties.getRoutes().contains(route.getId())) {
+            return chain.filter(exchange);
+        }
+
+        String key = coalescingKey(exchange, route);
+        Flight flight = new Flight();
+        Flight existing = inflight.putIfAbsent(key, flight);
+        if (existing == null) {
+            leaders.increment();
+            return lead(exchange, chain, key, flight);
+        }
+
+        followers.increment();
+        return existing.sink.asMono()
+                .timeout(properties.getTimeout())
+                .flatMap(shared -> writeShared(exchange, shared, false))
+                .onErrorResume(throwable -> throwable instanceof TimeoutException
+                        || throwable instanceof CancellationException
+                        || throwable instanceof NotShareableException, throwable -> {
+                    fallbacks.increment();
+                    return chain.filter(exchange);
+                });
+    }
+
+    /**
+     * 首个请求转发下游，暂存响应后分发给所有等待的请求
+     */
+    private Mono<Void> lead(ServerWebExchange exchange, GatewayFilterChain chain, String key, Flight flight) {
+        CapturingResponse capture = new CapturingResponse(exchange.getResponse(), properties.getMaxBodySize().toBytes(),
+                () -> {
+                    // 响应无法共享，首个请求已直接透传，跟随请求改为单独转发
+                    inflight.remove(key, flight);
+                    flight.sink.tryEmitError(new NotShareableException());
+                });
+        return chain.filter(exchange.mutate().response(capture).build())
+                .then(Mono.fromSupplier(() -> capture.isPassthrough() ? null : capture.toSharedResponse()))
+                .doOnNext(shared -> {
+                    inflight.remove(key, flight);
+                    flight.sink.tryEmitValue(shared);
+                })
+                .doOnError(throwable -> {
+                    inflight.remove(key, flight);
+                    flight.sink.tryEmitError(throwable);
+                })
+                .doOnCancel(() -> {
+                    inflight.remove(key, flight);
+                    flight.sink.tryEmitError(new CancellationException("合并请求的首个请求已取消"));
+                })
+                .flatMap(shared -> writeShared(exchange, shared, true));
+    }
+
+    private Mono<Void> writeShared(ServerWebExchange exchange, SharedResponse shared, boolean leader) {
+        ServerHttpResponse response = exchange.getResponse();
+        if (!leader) {
+            // 首个请求的状态码与响应头已由路由过滤器写入其自身响应
+            response.setStatusCode(shared.status());
+            response.getHeaders().putAll(shared.headers());
+        }
+        if (shared.body().length == 0) {
+            return response.setComplete();
+        }
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private String coalescingKey(ServerWebExchange exchange, Route route) {
+        ServerHttpRequest request = exchange.getRequest();
+        String scope = ANONYMOUS_SCOPE;
+        if (properties.isUserScoped()) {
+            String userId = request.getHeaders().getFirst(CommonConstants.HEADER_USER_ID);
+            if (userId != null) {
+                scope = userId;
+            }
+        }
+        String query = request.getURI().getRawQuery();
+        String target = query == null ? request.getURI().getRawPath() : request.getURI().getRawPath() + '?' + query;
+        StringBuilder key = new StringBuilder(64)
+                .append(route.getId()).append('|').append(scope).append('|').append(target);
+        // 内容协商请求头不同的请求可能得到不同的响应体
+        HttpHeaders headers = request.getHeaders();
+        for (String name : NEGOTIATION_HEADERS) {
+            key.append('|');
+            List<String> values = headers.get(name);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean acceptsStream(ServerHttpRequest request) {
+        List<MediaType> accept;
+        try {
+            accept = request.getHeaders().getAccept();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (MediaType mediaType : accept) {
+            if (isStreaming(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStreaming(MediaType mediaType) {
+        for (MediaType streaming : STREAMING_TYPES) {
+            if (streaming.equalsTypeAndSubtype(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConditional(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE)
+                || headers.containsKey(HttpHeaders.RANGE);
+    }
+
+    private double coalescingRatio() {
+        double total = leaders.count() + followers.count();
+        return total == 0 ? 0 : followers.count() / total;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String role) {
+        return Counter.builder(METRIC_NAME)
+                .description("参与合并的GET请求计数")
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 一次正在进行的下游调用
+     */
+    private static final class Flight {
+
+        private final Sinks.One<SharedResponse> sink = Sinks.one();
+    }
+
+    /**
+     * 可共享的下游响应
+     */
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /**
+     * 首个请求的响应无法共享
+     */
+    private static final class NotShareableException extends RuntimeException {
+
+        NotShareableException() {
+            super("响应无法共享", null, false, false);
+        }
+    }
+
+    /**
+     * 暂存响应体而不写出的响应装饰器，状态码与响应头仍写入被装饰的响应
+     * <p>
+     * 响应体超过上限或为流式响应时改为直接写出已读取的部分与剩余部分，并回调onPassthrough。
+     */
+    private static class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final long maxBodySize;
+        private final Runnable onPassthrough;
+        private byte[] body = EMPTY_BODY;
+        private volatile boolean passthrough;
+
+        CapturingResponse(ServerHttpResponse delegate, long maxBodySize, Runnable onPassthrough) {
+            super(delegate);
+            this.maxBodySize = maxBodySize;
+            this.onPassthrough = onPassthrough;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpHeaders headers = getHeaders();
+            MediaType contentType = headers.getContentType();
+            if (headers.getContentLength() > maxBodySize || (contentType != null && isStreaming(contentType))) {
+                passthrough();
+                return super.writeWith(body);
+            }
+
+            // 累计大小超过上限的那个数据块结束第一组，此后每个数据块各成一组
+            AtomicLong total = new AtomicLong();
+            return Flux.from(body)
+                    .map(DataBuffer.class::cast)
+                    .bufferUntil(buffer -> total.addAndGet(buffer.readableByteCount()) > maxBodySize)
+                    .switchOnFirst((first, chunks) -> {
+                        if (first.hasValue() && total.get() > maxBodySize) {
+                            passthrough();
+                            return getDelegate().writeWith(chunks.concatMapIterable(chunk -> chunk));
+                        }
+                        return chunks.doOnNext(this::capture).then();
+                    })
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // 逐段刷新的响应（如SSE）不能等待完整响应体
+            passthrough();
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return passthrough ? super.setComplete() : Mono.empty();
+        }
+
+        boolean isPassthrough() {
+            return passthrough;
+        }
+
+        private void passthrough() {
+            passthrough = true;
+            onPassthrough.run();
+        }
+
+        private void capture(List<DataBuffer> chunk) {
+            int size = 0;
+            for (DataBuffer buffer : chunk) {
+                size += buffer.readableByteCount();
+            }
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : chunk) {
+                int count = buffer.readableByteCount();
+                buffer.read(bytes, offset, count);
+                offset += count;
+                DataBufferUtils.release(buffer);
+            }
+            this.body = bytes;
+        }
+
+        SharedResponse toSharedResponse() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(getHeaders());
+            return new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), body);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return -25; // 在响应缓存过滤器之后执行
+    }
+}
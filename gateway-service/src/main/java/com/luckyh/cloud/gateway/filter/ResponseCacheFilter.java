@@ -0,0 +1,309 @@
+package com.luckyh.cloud.gateway.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.luckyh.cloud.common.constant.CommonConstants;
+import com.luckyh.cloud.gateway.cache.CachedResponse;
+import com.luckyh.cloud.gateway.cache.ResponseCacheRules;
+import com.luckyh.cloud.gateway.cache.ResponseCacheStore;
+import com.luckyh.cloud.gateway.config.ResponseCacheProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 响应缓存过滤器
+ * <p>
+ * 只处理gateway.response-cache.routes中配置的GET请求：命中时直接返回缓存的响应体，
+ * 请求的If-None-Match与缓存ETag一致时返回304；未命中时转发下游，只缓存HTTP 200且响应体code为200的响应
+ * （下游以HTTP 200加Result.code表示业务失败）。对已缓存资源及其子路径的写请求在转发前后各失效一次该资源的缓存。
+ * 缓存键包含路径与查询参数，按用户隔离的路由额外包含X-User-Id，因此必须在认证过滤器之后执行。
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final String METRIC_NAME = "gateway.response.cache";
+    private static final String CACHE_HEADER = "X-Cache";
+    private static final String ANONYMOUS_SCOPE = "-";
+    private static final String RESULT_CODE_FIELD = "code";
+    private static final int RESULT_SUCCESS_CODE = 200;
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCacheRules rules;
+    private final ResponseCacheStore store;
+    private final JsonFactory jsonFactory;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties,
+                               ResponseCacheRules rules,
+                               ResponseCacheStore store,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rules = rules;
+        this.store = store;
+        this.jsonFactory = objectMapper.getFactory();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.notModified = counter(meterRegistry, "not_modified");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        if (request.getMethod() != HttpMethod.GET) {
+            return isWrite(request.getMethod()) ? evictOnWrite(exchange, chain) : chain.filter(exchange);
+        }
+
+        ResponseCacheRules.Rule rule = rules.match(request.getPath().pathWithinApplication());
+        if (rule == null) {
+            return chain.filter(exchange);
+        }
+
+        String path = request.getURI().getRawPath();
+        String key = ResponseCacheStore.key(scope(request, rule), path, request.getURI().getRawQuery());
+        return store.get(key)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(cached -> {
+                    if (cached.isPresent()) {
+                        return writeCached(exchange, cached.get());
+                    }
+                    misses.increment();
+                    return chain.filter(exchange.mutate()
+                            .response(new CachingResponse(exchange, path, key, rule))
+                            .build());
+                });
+    }
+
+    private static String scope(ServerHttpRequest request, ResponseCacheRules.Rule rule) {
+        if (rule.userScoped()) {
+            String userId = request.getHeaders().getFirst(CommonConstants.HEADER_USER_ID);
+            if (userId != null) {
+                return userId;
+            }
+        }
+        return ANONYMOUS_SCOPE;
+    }
+
+    private static boolean isWrite(HttpMethod method) {
+        return method == HttpMethod.PUT || method == HttpMethod.DELETE
+                || method == HttpMethod.PATCH || method == HttpMethod.POST;
+    }
+
+    /**
+     * 写请求修改了已缓存的资源时失效其缓存
+     * <p>
+     * 转发前失效一次，避免写入期间读到旧值；完成后再失效一次，清除写入期间并发读请求回填的旧值。
+     * 子路径上的写操作（如POST /orders/1/pay）同样修改上级资源，按路径段逐级检查。
+     */
+    private Mono<Void> evictOnWrite(ServerWebExchange exchange, GatewayFilterChain chain) {
+        List<String> paths = cachedAncestors(exchange.getRequest().getURI().getRawPath());
+        if (paths.isEmpty()) {
+            return chain.filter(exchange);
+        }
+        return evict(paths)
+                .then(chain.filter(exchange))
+                .then(Mono.defer(() -> evict(paths)));
+    }
+
+    private List<String> cachedAncestors(String rawPath) {
+        List<String> paths = new ArrayList<>(2);
+        int end = rawPath.length();
+        while (end > 1) {
+            String candidate = rawPath.substring(0, end);
+            if (rules.match(PathContainer.parsePath(candidate)) != null) {
+                paths.add(candidate);
+            }
+            end = candidate.lastIndexOf('/');
+        }
+        return paths;
+    }
+
+    private Mono<Void> evict(List<String> paths) {
+        return Flux.fromIterable(paths).concatMap(store::evict).then();
+    }
+
+    /**
+     * 输出缓存的响应
+     */
+    private Mono<Void> writeCached(ServerWebExchange exchange, CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.setETag(cached.etag());
+        headers.set(CACHE_HEADER, "HIT");
+
+        if (matchesIfNoneMatch(exchange.getRequest(), cached.etag())) {
+            notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+
+        hits.increment();
+        response.setStatusCode(HttpStatus.OK);
+        if (cached.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, cached.contentType());
+        }
+        headers.setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matchesIfNoneMatch(ServerHttpRequest request, String etag) {
+        List<String> ifNoneMatch;
+        try {
+            ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch) {
+            // 弱比较：忽略W/前缀
+            String value = candidate.startsWith("W/") ? candidate.substring(2) : candidate;
+            if ("*".equals(value) || etag.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder(METRIC_NAME)
+                .description("网关响应缓存结果计数")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 聚合下游响应体并写入缓存的响应装饰器
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final ServerWebExchange exchange;
+        private final String path;
+        private final String key;
+        private final ResponseCacheRules.Rule rule;
+
+        CachingResponse(ServerWebExchange exchange, String path, String key, ResponseCacheRules.Rule rule) {
+            super(exchange.getResponse());
+            this.exchange = exchange;
+            this.path = path;
+            this.key = key;
+            this.rule = rule;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!isCacheable()) {
+                return super.writeWith(body);
+            }
+
+            return DataBufferUtils.join(body).flatMap(joined -> {
+                byte[] bytes = new byte[joined.readableByteCount()];
+                joined.read(bytes);
+                DataBufferUtils.release(joined);
+
+                HttpHeaders headers = getHeaders();
+                MediaType contentType = headers.getContentType();
+                if (bytes.length <= properties.getMaxEntrySize().toBytes() && isSuccessBody(contentType, bytes)) {
+                    String etag = '"' + DigestUtils.md5DigestAsHex(bytes) + '"';
+                    store.put(path, key, new CachedResponse(contentType != null ? contentType.toString() : null, etag, bytes,
+                            System.currentTimeMillis() + rule.ttl().toMillis()), rule.ttl());
+                    headers.setETag(etag);
+                    headers.set(CACHE_HEADER, "MISS");
+
+                    if (matchesIfNoneMatch(exchange.getRequest(), etag)) {
+                        notModified.increment();
+                        headers.remove(HttpHeaders.CONTENT_LENGTH);
+                        setStatusCode(HttpStatus.NOT_MODIFIED);
+                        return setComplete();
+                    }
+                }
+                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+            });
+        }
+
+        /**
+         * 只缓存未声明no-store且不设置Cookie的200响应，已知超过单条上限的响应直接透传；
+         * 响应体code在聚合响应体后由{@link #isSuccessBody}检查
+         */
+        private boolean isCacheable() {
+            if (getStatusCode() == null || getStatusCode().value() != HttpStatus.OK.value()) {
+                return false;
+            }
+            HttpHeaders headers = getHeaders();
+            if (headers.containsKey(HttpHeaders.SET_COOKIE)) {
+                return false;
+            }
+            String cacheControl = headers.getCacheControl();
+            if (cacheControl != null && cacheControl.contains("no-store")) {
+                return false;
+            }
+            long contentLength = headers.getContentLength();
+            return contentLength < 0 || contentLength <= properties.getMaxEntrySize().toBytes();
+        }
+    }
+
+    /**
+     * 响应体是否表示业务成功：JSON响应体顶层code字段存在时必须为200，非JSON或不含code的响应视为成功
+     * <p>
+     * 流式读取顶层字段，读到code即停止，不构建整棵JSON树。
+     */
+    boolean isSuccessBody(MediaType contentType, byte[] body) {
+        if (contentType == null || !(MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json"))) {
+            return true;
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return true;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (RESULT_CODE_FIELD.equals(field)) {
+                    return value == JsonToken.VALUE_NUMBER_INT && parser.getIntValue() == RESULT_SUCCESS_CODE;
+                }
+                parser.skipChildren();
+            }
+            return true;
+        } catch (IOException e) {
+            // 无法解析的响应体不缓存
+            return false;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return -30; // 在认证与限流过滤器之后执行
+    }
+}
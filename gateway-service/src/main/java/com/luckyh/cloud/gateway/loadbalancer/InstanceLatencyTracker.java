@@ -0,0 +1,59 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.luckyh.cloud.gateway.config.LoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+/**
+ * 实例延迟跟踪
+ * <p>
+ * 按服务实例维护{@link InstanceStats}，由负载均衡统计过滤器在请求发往实例时记录在途数、完成时记录耗时；
+ * 失败的请求按failurePenalty计入延迟。下线或缩容的实例不再被选中，其统计超过statsIdleTimeout未访问后移除。
+ */
+@Component
+public class InstanceLatencyTracker {
+
+    private final LoadBalancerProperties properties;
+    private final Cache<String, InstanceStats> stats;
+
+    public InstanceLatencyTracker(LoadBalancerProperties properties) {
+        this.properties = properties;
+        this.stats = Caffeine.newBuilder()
+                .expireAfterAccess(properties.getStatsIdleTimeout())
+                .build();
+    }
+
+    /**
+     * 请求开始发往实例
+     */
+    public void onStart(ServiceInstance instance) {
+        statsOf(instance).start();
+    }
+
+    /**
+     * 请求结束
+     *
+     * @param rttNanos 请求耗时，小于0表示请求被取消，不计入延迟样本
+     * @param failed   请求是否失败
+     */
+    public void onComplete(ServiceInstance instance, long rttNanos, boolean failed) {
+        // 统计已过期移除时丢弃该样本，避免在新建的统计上把在途数减为负数
+        InstanceStats instanceStats = stats.getIfPresent(key(instance));
+        if (instanceStats == null) {
+            return;
+        }
+        long sample = failed ? Math.max(rttNanos, properties.getFailurePenalty().toNanos()) : rttNanos;
+        instanceStats.complete(sample, System.nanoTime());
+    }
+
+    InstanceStats statsOf(ServiceInstance instance) {
+        return stats.get(key(instance),
+                k -> new InstanceStats(properties.getDecayTime().toNanos(), System.nanoTime()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + '@' + instance.getHost() + ':' + instance.getPort();
+    }
+}
@@ -0,0 +1,82 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单个实例的延迟与在途请求统计
+ * <p>
+ * 延迟使用峰值EWMA：样本高于当前值时直接取样本，低于时按距上次更新的时间指数衰减平滑，
+ * 实例变慢能立即被感知，恢复则逐步体现。读取成本时同样按空闲时间衰减，
+ * 长时间未被选中的实例成本逐渐降低，会重新得到探测流量。
+ * <p>
+ * 没有延迟样本（新上线，或空闲过久衰减到0）的实例只在无在途请求时成本为0，用一个请求探测；
+ * 已有在途请求时按惩罚值计算，首个响应返回前不再分配流量，避免冷实例因成本为0吸走所有请求。
+ */
+final class InstanceStats {
+
+    // 无延迟样本且有在途请求时的成本，远大于任何实际延迟
+    private static final double PENALTY = Long.MAX_VALUE >> 16;
+
+    private final double decayNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double ewmaNanos;
+    private volatile long lastUpdateNanos;
+
+    InstanceStats(long decayNanos, long nowNanos) {
+        this.decayNanos = decayNanos;
+        this.lastUpdateNanos = nowNanos;
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * 请求结束
+     *
+     * @param rttNanos 请求耗时，小于0表示没有有效样本
+     */
+    void complete(long rttNanos, long nowNanos) {
+        inFlight.decrementAndGet();
+        if (rttNanos >= 0) {
+            observe(rttNanos, nowNanos);
+        }
+    }
+
+    synchronized void observe(long rttNanos, long nowNanos) {
+        double current = decayed(nowNanos);
+        if (rttNanos > current) {
+            ewmaNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-Math.max(0, nowNanos - lastUpdateNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * weight + rttNanos * (1 - weight);
+        }
+        lastUpdateNanos = nowNanos;
+    }
+
+    /**
+     * 选择成本：衰减后的延迟乘以在途请求数加一，再除以权重；没有延迟样本且有在途请求时按惩罚值加在途数计算
+     */
+    double cost(long nowNanos, double weight) {
+        double latency = decayed(nowNanos);
+        int active = inFlight.get();
+        if (latency < 1 && active > 0) {
+            return (PENALTY + active) / weight;
+        }
+        return latency * (active + 1) / weight;
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    double getEwmaNanos() {
+        return ewmaNanos;
+    }
+
+    private double decayed(long nowNanos) {
+        long idle = Math.max(0, nowNanos - lastUpdateNanos);
+        return ewmaNanos * Math.exp(-idle / decayNanos);
+    }
+}
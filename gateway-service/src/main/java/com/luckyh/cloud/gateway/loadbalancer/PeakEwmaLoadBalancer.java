@@ -0,0 +1,86 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import com.luckyh.cloud.gateway.config.LoadBalancerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 峰值EWMA负载均衡器
+ * <p>
+ * 随机选取两个实例（power of two choices），取成本较低者。成本为实例峰值EWMA延迟乘以在途请求数加一，
+ * 再除以实例元数据中的权重（Nacos权重作为先验）。变慢或GC停顿的实例延迟与在途数上升，自动得到更少流量。
+ */
+@Slf4j
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final InstanceLatencyTracker tracker;
+    private final LoadBalancerProperties properties;
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                String serviceId,
+                                InstanceLatencyTracker tracker,
+                                LoadBalancerProperties properties) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.tracker = tracker;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            log.warn("服务{}没有可用实例", serviceId);
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        long now = System.nanoTime();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        double costA = tracker.statsOf(a).cost(now, weightOf(a));
+        double costB = tracker.statsOf(b).cost(now, weightOf(b));
+        return new DefaultResponse(costA <= costB ? a : b);
+    }
+
+    private double weightOf(ServiceInstance instance) {
+        String weight = instance.getMetadata() != null
+                ? instance.getMetadata().get(properties.getWeightMetadataKey()) : null;
+        if (weight == null) {
+            return 1;
+        }
+        try {
+            double value = Double.parseDouble(weight);
+            return value > 0 ? value : Double.MIN_VALUE;
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+}
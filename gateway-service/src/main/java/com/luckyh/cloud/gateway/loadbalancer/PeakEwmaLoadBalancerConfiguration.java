@@ -0,0 +1,34 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import com.luckyh.cloud.gateway.config.LoadBalancerProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * 各服务负载均衡子容器的配置
+ * <p>
+ * 通过{@code @LoadBalancerClients(defaultConfiguration = ...)}引用，不能标注@Configuration，
+ * 否则会被主容器扫描并对所有服务共用同一个负载均衡器。
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> reactorServiceInstanceLoadBalancer(Environment environment,
+                                                                                   LoadBalancerClientFactory clientFactory,
+                                                                                   InstanceLatencyTracker tracker,
+                                                                                   LoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        if (!properties.isLatencyAware()) {
+            return new RoundRobinLoadBalancer(
+                    clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId);
+        }
+        return new PeakEwmaLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, tracker, properties);
+    }
+}
@@ -0,0 +1,26 @@
+package com.luckyh.cloud.gateway.log;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+
+/**
+ * 访问日志事件
+ * <p>
+ * 事件对象在环形缓冲区中预先分配并循环复用，请求线程只写入字段引用与数值，
+ * 字符串格式化全部留给后台刷出线程。
+ */
+final class AccessLogEvent {
+
+    long requestSequence;
+    String method;
+    URI uri;
+    InetSocketAddress remoteAddress;
+    int status;
+    long durationNanos;
+
+    void clear() {
+        method = null;
+        uri = null;
+        remoteAddress = null;
+    }
+}
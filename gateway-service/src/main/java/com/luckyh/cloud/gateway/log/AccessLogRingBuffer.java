@@ -0,0 +1,93 @@
+package com.luckyh.cloud.gateway.log;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁访问日志环形缓冲区（多生产者、单消费者）
+ * <p>
+ * 每个槽位带一个序号：序号等于写入位置时可写，等于写入位置+1时可读。
+ * 生产者通过CAS抢占写入位置，缓冲区写满时直接放弃，不会阻塞事件循环线程。
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogEvent[] events;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.events = new AccessLogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            events[i] = new AccessLogEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 写入事件
+     *
+     * @return 缓冲区已满时返回false
+     */
+    boolean offer(long requestSequence, String method, URI uri, InetSocketAddress remoteAddress,
+                  int status, long durationNanos) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    AccessLogEvent event = events[index];
+                    event.requestSequence = requestSequence;
+                    event.method = method;
+                    event.uri = uri;
+                    event.remoteAddress = remoteAddress;
+                    event.status = status;
+                    event.durationNanos = durationNanos;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * 批量取出事件，只能由刷出线程调用
+     *
+     * @param handler  事件处理器，事件对象在回调返回后会被复用
+     * @param maxBatch 单批最大数量
+     * @return 实际取出数量
+     */
+    int drain(EventHandler handler, int maxBatch) {
+        int drained = 0;
+        while (drained < maxBatch) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            AccessLogEvent event = events[index];
+            handler.onEvent(event);
+            event.clear();
+            sequences.lazySet(index, head + events.length);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+
+    interface EventHandler {
+
+        void onEvent(AccessLogEvent event);
+    }
+}
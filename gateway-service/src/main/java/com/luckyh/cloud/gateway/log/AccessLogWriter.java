@@ -0,0 +1,107 @@
+package com.luckyh.cloud.gateway.log;
+
+import com.luckyh.cloud.gateway.config.AccessLogProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步访问日志输出
+ * <p>
+ * 请求线程只把事件写入无锁环形缓冲区，由单独的后台线程按批取出并格式化输出，
+ * 每个请求一行日志。支持采样，缓冲区写满时丢弃并计数，不阻塞网关事件循环。
+ */
+@Slf4j
+@Component
+public class AccessLogWriter {
+
+    private static final int MAX_BATCH = 512;
+
+    private final AccessLogProperties properties;
+    private final RequestIdGenerator requestIdGenerator;
+    private final AccessLogRingBuffer ringBuffer;
+    private final Counter droppedCounter;
+    private final ScheduledExecutorService flushExecutor;
+
+    public AccessLogWriter(AccessLogProperties properties,
+                           RequestIdGenerator requestIdGenerator,
+                           MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.requestIdGenerator = requestIdGenerator;
+        this.ringBuffer = new AccessLogRingBuffer(properties.getBufferSize());
+        this.droppedCounter = Counter.builder("gateway.access.log.dropped")
+                .description("环形缓冲区写满而丢弃的访问日志数")
+                .register(meterRegistry);
+        this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-access-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = Math.max(1, properties.getFlushInterval().toMillis());
+        flushExecutor.scheduleWithFixedDelay(this::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+    }
+
+    /**
+     * 记录一次请求，按配置采样
+     */
+    public void record(long requestSequence, String method, URI uri, InetSocketAddress remoteAddress,
+                       int status, long durationNanos) {
+        if (!shouldLog(status)) {
+            return;
+        }
+        if (!ringBuffer.offer(requestSequence, method, uri, remoteAddress, status, durationNanos)) {
+            droppedCounter.increment();
+        }
+    }
+
+    private boolean shouldLog(int status) {
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        if (properties.isAlwaysLogErrors() && status >= 500) {
+            return true;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * 刷出缓冲区中的全部事件
+     */
+    private synchronized void flush() {
+        try {
+            while (ringBuffer.drain(this::write, MAX_BATCH) == MAX_BATCH) {
+                // 继续取下一批，直到缓冲区为空
+            }
+        } catch (RuntimeException e) {
+            log.error("访问日志输出失败", e);
+        }
+    }
+
+    private void write(AccessLogEvent event) {
+        log.info("RequestId: {}, Method: {}, URI: {}, Status: {}, 耗时: {}ms, RemoteAddr: {}",
+                requestIdGenerator.format(event.requestSequence), event.method, event.uri, event.status,
+                TimeUnit.NANOSECONDS.toMillis(event.durationNanos), event.remoteAddress);
+    }
+}
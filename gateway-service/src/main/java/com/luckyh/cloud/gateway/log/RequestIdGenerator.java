@@ -0,0 +1,37 @@
+package com.luckyh.cloud.gateway.log;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 请求ID生成器
+ * <p>
+ * 请求ID由实例启动时随机生成的前缀和单调递增序号组成，
+ * 代替每个请求生成一次UUID，序号本身可直接作为日志事件的数值ID。
+ */
+@Component
+public class RequestIdGenerator {
+
+    private final String prefix;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RequestIdGenerator() {
+        this.prefix = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 16) + "-";
+    }
+
+    /**
+     * 生成下一个序号
+     */
+    public long nextSequence() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * 序号转为请求ID
+     */
+    public String format(long sequence) {
+        return prefix + Long.toHexString(sequence);
+    }
+}
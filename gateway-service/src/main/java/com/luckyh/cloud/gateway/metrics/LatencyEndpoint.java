@@ -0,0 +1,76 @@
+package com.luckyh.cloud.gateway.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 路由延迟分位数端点
+ * <p>
+ * GET /actuator/latency 返回所有路由按状态码划分的p50/p90/p99/p999（毫秒），
+ * GET /actuator/latency/{route} 只返回指定路由。
+ */
+@Component
+@Endpoint(id = "latency")
+@RequiredArgsConstructor
+public class LatencyEndpoint {
+
+    private final RouteLatencyRecorder routeLatencyRecorder;
+
+    @ReadOperation
+    public Map<String, Map<String, Map<String, Object>>> latency() {
+        Map<String, Map<String, Map<String, Object>>> result = new TreeMap<>();
+        routeLatencyRecorder.timers().forEach((routeId, timers) -> result.put(routeId, summarize(timers)));
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, Object>> routeLatency(@Selector String route) {
+        AtomicReferenceArray<Timer> timers = routeLatencyRecorder.timers().get(route);
+        return timers != null ? summarize(timers) : Map.of();
+    }
+
+    private Map<String, Map<String, Object>> summarize(AtomicReferenceArray<Timer> timers) {
+        Map<String, Map<String, Object>> byStatus = new TreeMap<>();
+        for (int i = 0; i < timers.length(); i++) {
+            Timer timer = timers.get(i);
+            if (timer == null) {
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", snapshot.count());
+            summary.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+            summary.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                summary.put(percentileName(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+            }
+            byStatus.put(timer.getId().getTag("status"), summary);
+        }
+        return byStatus;
+    }
+
+    private static String percentileName(double percentile) {
+        if (percentile == 0.5) {
+            return "p50";
+        }
+        if (percentile == 0.9) {
+            return "p90";
+        }
+        if (percentile == 0.99) {
+            return "p99";
+        }
+        return "p999";
+    }
+}
@@ -0,0 +1,76 @@
+package com.luckyh.cloud.gateway.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 路由延迟直方图记录器
+ * <p>
+ * 按路由ID与响应状态码维护Micrometer Timer（gateway.route.latency），
+ * 开启百分位直方图后可在/actuator/metrics与Prometheus中查看分布，
+ * 也可通过/actuator/latency直接查看p50/p90/p99/p999。
+ * Timer按路由缓存在以状态码为下标的数组中，记录时不再查找注册表。
+ */
+@Component
+public class RouteLatencyRecorder {
+
+    public static final String METRIC_NAME = "gateway.route.latency";
+
+    static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private static final String UNMATCHED_ROUTE = "unmatched";
+    private static final int MAX_STATUS = 600;
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, AtomicReferenceArray<Timer>> timers = new ConcurrentHashMap<>();
+
+    public RouteLatencyRecorder(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 记录一次请求耗时
+     */
+    public void record(ServerWebExchange exchange, int status, long durationNanos) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : UNMATCHED_ROUTE;
+        timer(routeId, status).record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 当前所有路由的Timer
+     */
+    Map<String, AtomicReferenceArray<Timer>> timers() {
+        return timers;
+    }
+
+    private Timer timer(String routeId, int status) {
+        int index = status > 0 && status < MAX_STATUS ? status : 0;
+        AtomicReferenceArray<Timer> routeTimers = timers.computeIfAbsent(routeId,
+                key -> new AtomicReferenceArray<>(MAX_STATUS));
+        Timer timer = routeTimers.get(index);
+        if (timer == null) {
+            timer = Timer.builder(METRIC_NAME)
+                    .description("网关路由请求延迟")
+                    .tag("route", routeId)
+                    .tag("status", index == 0 ? "UNKNOWN" : String.valueOf(index))
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry);
+            routeTimers.compareAndSet(index, null, timer);
+        }
+        return timer;
+    }
+}
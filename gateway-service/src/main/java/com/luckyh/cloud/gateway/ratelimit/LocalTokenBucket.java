@@ -0,0 +1,51 @@
+package com.luckyh.cloud.gateway.ratelimit;
+
+/**
+ * 本地令牌桶
+ * <p>
+ * 与Redis中的全局令牌桶使用相同的速率与容量，单个实例就已超限的请求在本地直接拒绝。
+ */
+final class LocalTokenBucket {
+
+    private final double tokensPerNano;
+    private final int capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    LocalTokenBucket(double replenishRate, int capacity) {
+        this.tokensPerNano = replenishRate / 1_000_000_000d;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * 是否至少有一个令牌，不扣减
+     */
+    synchronized boolean hasToken() {
+        refill();
+        return tokens >= 1;
+    }
+
+    synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * 归还一个已扣减的令牌
+     */
+    synchronized void release() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
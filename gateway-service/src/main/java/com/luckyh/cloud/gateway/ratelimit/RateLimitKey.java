@@ -0,0 +1,12 @@
+package com.luckyh.cloud.gateway.ratelimit;
+
+/**
+ * 限流令牌桶
+ *
+ * @param dimension     限流维度：ip、user、route
+ * @param key           Redis中的令牌桶key
+ * @param replenishRate 每秒补充的令牌数
+ * @param burstCapacity 令牌桶容量
+ */
+public record RateLimitKey(String dimension, String key, double replenishRate, int burstCapacity) {
+}
@@ -0,0 +1,150 @@
+package com.luckyh.cloud.gateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.luckyh.cloud.gateway.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.context.scope.refresh.RefreshScopeRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 基于Redis令牌桶的分布式限流器
+ * <p>
+ * 一次请求涉及的所有令牌桶在同一个Lua脚本中原子地检查与扣减，任一桶不足则全部不扣减。
+ * 访问Redis之前先经过本地令牌桶：本地桶与全局桶速率相同，单个实例就已超限的请求必然会被
+ * 全局桶拒绝，直接在本地拒绝，突发流量不再逐个访问Redis。
+ * Redis不可用时放行请求，避免限流组件故障导致整个网关不可用。
+ */
+@Slf4j
+@Component
+public class TokenBucketRateLimiter {
+
+    private static final String REJECTED_METRIC = "gateway.rate.limit.rejected";
+
+    private static final RedisScript<Long> SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/rate_limit.lua"), Long.class);
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Counter> rejectedCounters = new ConcurrentHashMap<>();
+
+    private volatile Cache<String, LocalTokenBucket> localBuckets;
+
+    public TokenBucketRateLimiter(ReactiveStringRedisTemplate redisTemplate,
+                                  RateLimitProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.localBuckets = newLocalBuckets();
+    }
+
+    /**
+     * 尝试从所有令牌桶中各取一个令牌
+     *
+     * @param keys 本次请求涉及的令牌桶
+     * @return 通过时返回空，被拒绝时返回拒绝请求的令牌桶
+     */
+    public Mono<RateLimitKey> acquire(List<RateLimitKey> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+
+        if (properties.isLocalPreLimit()) {
+            RateLimitKey rejectedKey = acquireLocal(keys);
+            if (rejectedKey != null) {
+                rejected(rejectedKey.dimension(), "local");
+                return Mono.just(rejectedKey);
+            }
+        }
+
+        List<String> redisKeys = new ArrayList<>(keys.size());
+        List<String> args = new ArrayList<>(2 + keys.size() * 2);
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add("1");
+        for (RateLimitKey key : keys) {
+            redisKeys.add(key.key());
+            args.add(String.valueOf(key.replenishRate()));
+            args.add(String.valueOf(key.burstCapacity()));
+        }
+
+        return redisTemplate.execute(SCRIPT, redisKeys, args)
+                .next()
+                .flatMap(index -> {
+                    if (index == null || index <= 0 || index > keys.size()) {
+                        return Mono.<RateLimitKey>empty();
+                    }
+                    RateLimitKey key = keys.get(index.intValue() - 1);
+                    rejected(key.dimension(), "redis");
+                    return Mono.just(key);
+                })
+                .onErrorResume(throwable -> {
+                    log.warn("限流脚本执行失败，放行请求: {}", throwable.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 从所有本地令牌桶中各取一个令牌，与Lua脚本一致：任一桶不足则全部不扣减
+     *
+     * @return 令牌不足的令牌桶，全部通过时返回null
+     */
+    private RateLimitKey acquireLocal(List<RateLimitKey> keys) {
+        Cache<String, LocalTokenBucket> buckets = localBuckets;
+        LocalTokenBucket[] resolved = new LocalTokenBucket[keys.size()];
+        for (int i = 0; i < resolved.length; i++) {
+            RateLimitKey key = keys.get(i);
+            resolved[i] = buckets.get(key.key(), k -> new LocalTokenBucket(key.replenishRate(), key.burstCapacity()));
+            if (!resolved[i].hasToken()) {
+                return key;
+            }
+        }
+        for (int i = 0; i < resolved.length; i++) {
+            if (!resolved[i].tryAcquire()) {
+                // 检查后被并发请求取走了令牌，归还已扣减的令牌
+                for (int j = 0; j < i; j++) {
+                    resolved[j].release();
+                }
+                return keys.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 配置刷新后丢弃本地令牌桶，按新的速率与容量重建
+     */
+    @EventListener(RefreshScopeRefreshedEvent.class)
+    public void reload() {
+        localBuckets = newLocalBuckets();
+    }
+
+    private Cache<String, LocalTokenBucket> newLocalBuckets() {
+        return Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaxBuckets())
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+    }
+
+    private void rejected(String dimension, String source) {
+        rejectedCounters.computeIfAbsent(dimension + ':' + source, k -> Counter.builder(REJECTED_METRIC)
+                .description("网关限流拒绝次数")
+                .tag("dimension", dimension)
+                .tag("source", source)
+                .register(meterRegistry)).increment();
+    }
+}
@@ -0,0 +1,38 @@
+-- 多维度令牌桶限流脚本
+-- KEYS[i]: 第i个令牌桶的key（hash结构，字段tokens与ts）
+-- ARGV[1]: 当前时间（毫秒）
+-- ARGV[2]: 本次请求消耗的令牌数
+-- ARGV[2 + 2i - 1]: 第i个桶每秒补充的令牌数
+-- ARGV[2 + 2i]: 第i个桶的容量
+-- 返回: 0表示全部通过，否则为第一个令牌不足的桶的序号（从1开始），此时不扣减任何桶
+local now = tonumber(ARGV[1])
+local requested = tonumber(ARGV[2])
+local rejected = 0
+local tokens = {}
+
+for i = 1, #KEYS do
+    local rate = tonumber(ARGV[1 + 2 * i])
+    local capacity = tonumber(ARGV[2 + 2 * i])
+    local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+    local current = tonumber(bucket[1]) or capacity
+    local last = tonumber(bucket[2]) or now
+    local elapsed = math.max(0, now - last)
+    current = math.min(capacity, current + elapsed * rate / 1000)
+    if rejected == 0 and current < requested then
+        rejected = i
+    end
+    tokens[i] = current
+end
+
+for i = 1, #KEYS do
+    local rate = tonumber(ARGV[1 + 2 * i])
+    local capacity = tonumber(ARGV[2 + 2 * i])
+    local current = tokens[i]
+    if rejected == 0 then
+        current = current - requested
+    end
+    redis.call('HSET', KEYS[i], 'tokens', current, 'ts', now)
+    redis.call('PEXPIRE', KEYS[i], math.ceil(capacity / rate * 1000) * 2)
+end
+
+return rejected
@@ -0,0 +1,95 @@
+package com.luckyh.cloud.gateway.auth;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 路径匹配微基准：前缀树与原先逐条startsWith扫描对比
+ * <p>
+ * 默认构建不运行，使用{@code mvn test -Pbenchmark}执行。平均耗时通过{@link TestReporter}写入测试报告，
+ * 不对耗时做断言，避免在繁忙的构建机上误报；两种实现的匹配结果须一致。
+ */
+@Tag("benchmark")
+class PathPolicyMatcherBenchmarkTest {
+
+    private static final int RULE_COUNT = 120;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 10;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void compareTrieWithLinearScan(TestReporter reporter) {
+        List<PathPolicyMatcher.Rule> rules = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (int i = 0; i < RULE_COUNT; i++) {
+            String path = "/api/service" + i + "/resource";
+            rules.add(new PathPolicyMatcher.Rule(path, AuthPolicy.PUBLIC, new String[0]));
+            prefixes.add(path);
+        }
+        PathPolicyMatcher matcher = PathPolicyMatcher.compile(rules, AuthPolicy.TOKEN);
+
+        String[] paths = new String[256];
+        for (int i = 0; i < paths.length; i++) {
+            // 一半命中规则，一半落到默认策略
+            paths[i] = i % 2 == 0
+                    ? "/api/service" + (i % RULE_COUNT) + "/resource/" + i
+                    : "/api/other" + i + "/resource";
+        }
+        for (String path : paths) {
+            boolean linearPublic = prefixes.stream().anyMatch(path::startsWith);
+            assertEquals(linearPublic, matcher.match(path).getPolicy() == AuthPolicy.PUBLIC, path);
+        }
+
+        long trieHits = 0;
+        long linearHits = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            trieHits += runTrie(matcher, paths);
+            linearHits += runLinear(prefixes, paths);
+        }
+        long trieNanos = 0;
+        long linearNanos = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            trieHits += runTrie(matcher, paths);
+            trieNanos += System.nanoTime() - start;
+            start = System.nanoTime();
+            linearHits += runLinear(prefixes, paths);
+            linearNanos += System.nanoTime() - start;
+        }
+        // 命中次数参与断言，避免循环被JIT消除
+        assertEquals(linearHits, trieHits);
+        long operations = (long) MEASURE_ROUNDS * ITERATIONS * paths.length;
+        reporter.publishEntry("trieNanosPerOp", String.valueOf((double) trieNanos / operations));
+        reporter.publishEntry("linearNanosPerOp", String.valueOf((double) linearNanos / operations));
+    }
+
+    private static long runTrie(PathPolicyMatcher matcher, String[] paths) {
+        long hits = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+            for (String path : paths) {
+                if (matcher.match(path).getPolicy() == AuthPolicy.PUBLIC) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static long runLinear(List<String> prefixes, String[] paths) {
+        long hits = 0;
+        for (int n = 0; n < ITERATIONS; n++) {
+            for (String path : paths) {
+                if (prefixes.stream().anyMatch(path::startsWith)) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,99 @@
+package com.luckyh.cloud.gateway.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 路径认证策略匹配器测试
+ */
+class PathPolicyMatcherTest {
+
+    private final PathPolicyMatcher matcher = PathPolicyMatcher.compile(List.of(
+            rule("/api/auth/login", AuthPolicy.PUBLIC),
+            rule("/api/auth", AuthPolicy.TOKEN),
+            rule("/api/user/admin/**", AuthPolicy.ROLE, "ADMIN"),
+            rule("/actuator/", AuthPolicy.PUBLIC)
+    ), AuthPolicy.TOKEN);
+
+    @Test
+    void exactPathMatchesRule() {
+        assertEquals("/api/auth/login", matcher.match("/api/auth/login").getPath());
+        assertEquals(AuthPolicy.PUBLIC, matcher.match("/api/auth/login").getPolicy());
+    }
+
+    @Test
+    void longestPrefixWins() {
+        assertEquals("/api/auth/login", matcher.match("/api/auth/login/sms").getPath());
+        assertEquals("/api/auth", matcher.match("/api/auth/logout").getPath());
+        assertEquals("/api/auth", matcher.match("/api/auth").getPath());
+    }
+
+    @Test
+    void ruleMatchesOnlyAtSegmentBoundary() {
+        assertEquals("/api/auth", matcher.match("/api/auth/loginx").getPath());
+        assertEquals(AuthPolicy.TOKEN, matcher.match("/api/auth/loginx").getPolicy());
+        assertEquals("/", matcher.match("/api/authx").getPath());
+        assertEquals("/", matcher.match("/actuatorx").getPath());
+        assertEquals("/actuator", matcher.match("/actuator").getPath());
+        assertEquals("/actuator", matcher.match("/actuator/health").getPath());
+    }
+
+    @Test
+    void trailingSlashOnRequestPathMatchesRule() {
+        assertEquals("/api/auth/login", matcher.match("/api/auth/login/").getPath());
+    }
+
+    @Test
+    void unmatchedPathFallsBackToDefaultPolicy() {
+        PathPolicyMatcher.Rule rule = matcher.match("/api/order/1");
+        assertEquals("/", rule.getPath());
+        assertEquals(AuthPolicy.TOKEN, rule.getPolicy());
+        assertEquals(AuthPolicy.TOKEN, matcher.match("/").getPolicy());
+        assertEquals(AuthPolicy.TOKEN, matcher.match("").getPolicy());
+    }
+
+    @Test
+    void rootRuleReplacesDefaultPolicy() {
+        PathPolicyMatcher publicByDefault = PathPolicyMatcher.compile(List.of(
+                rule("/", AuthPolicy.PUBLIC),
+                rule("/api/order", AuthPolicy.TOKEN)
+        ), AuthPolicy.TOKEN);
+        assertEquals(AuthPolicy.PUBLIC, publicByDefault.match("/api/user/1").getPolicy());
+        assertEquals(AuthPolicy.TOKEN, publicByDefault.match("/api/order/1").getPolicy());
+    }
+
+    @Test
+    void rolePolicyPermitsAnyConfiguredRole() {
+        PathPolicyMatcher.Rule rule = matcher.match("/api/user/admin/users");
+        assertEquals(AuthPolicy.ROLE, rule.getPolicy());
+        assertTrue(rule.permits(List.of("USER", "ADMIN")));
+        assertFalse(rule.permits(List.of("USER")));
+        assertTrue(matcher.match("/api/auth/logout").permits(List.of()));
+    }
+
+    @Test
+    void rolePolicyWithoutRolesDeniesEveryone() {
+        PathPolicyMatcher internal = PathPolicyMatcher.compile(List.of(
+                rule("/api/user/users/batch", AuthPolicy.ROLE)
+        ), AuthPolicy.TOKEN);
+        assertFalse(internal.match("/api/user/users/batch").permits(List.of("ADMIN")));
+        assertTrue(internal.match("/api/user/users/1").permits(List.of()));
+    }
+
+    @Test
+    void normalizeStripsWildcardAndTrailingSlash() {
+        assertEquals("/api/user", PathPolicyMatcher.normalize(" /api/user/** "));
+        assertEquals("/api/user", PathPolicyMatcher.normalize("/api/user//"));
+        assertEquals("/", PathPolicyMatcher.normalize("/**"));
+        assertEquals("/", PathPolicyMatcher.normalize("/"));
+    }
+
+    private static PathPolicyMatcher.Rule rule(String path, AuthPolicy policy, String... roles) {
+        return new PathPolicyMatcher.Rule(path, policy, roles);
+    }
+}
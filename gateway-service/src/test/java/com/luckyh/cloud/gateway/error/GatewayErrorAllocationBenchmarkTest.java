@@ -0,0 +1,72 @@
+package com.luckyh.cloud.gateway.error;
+
+import io.netty.buffer.ByteBufAllocator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 错误响应体分配微基准：逐请求格式化字符串与预编码缓冲区副本对比
+ * <p>
+ * 默认构建不运行，使用{@code mvn test -Pbenchmark}执行。以当前线程的累计分配字节数计算每次请求的分配量，
+ * 结果通过{@link TestReporter}写入测试报告；分配计数受JVM与GC实现影响，不做断言，
+ * 缓冲区共享与只读行为由{@link GatewayErrorTest}校验。
+ */
+@Tag("benchmark")
+class GatewayErrorAllocationBenchmarkTest {
+
+    private static final int WARMUP = 50_000;
+    private static final int ITERATIONS = 200_000;
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(ByteBufAllocator.DEFAULT);
+
+    @Test
+    void comparePreEncodedPayloadWithFormatting(TestReporter reporter) {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+        GatewayError error = GatewayError.TOO_MANY_REQUESTS;
+
+        runFormatted(error, WARMUP);
+        runPreEncoded(error, WARMUP);
+
+        long threadId = Thread.currentThread().getId();
+        long start = threadBean.getThreadAllocatedBytes(threadId);
+        runFormatted(error, ITERATIONS);
+        long formatted = (threadBean.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+
+        start = threadBean.getThreadAllocatedBytes(threadId);
+        runPreEncoded(error, ITERATIONS);
+        long preEncoded = (threadBean.getThreadAllocatedBytes(threadId) - start) / ITERATIONS;
+
+        reporter.publishEntry("formattedBytesPerOp", String.valueOf(formatted));
+        reporter.publishEntry("preEncodedBytesPerOp", String.valueOf(preEncoded));
+    }
+
+    /**
+     * 原实现：每次拒绝都格式化字符串、编码为字节数组再包装
+     */
+    private void runFormatted(GatewayError error, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            byte[] bytes = String.format("{\"code\":%d,\"message\":\"%s\"}", error.getStatus().value(), error.getMessage())
+                    .getBytes(StandardCharsets.UTF_8);
+            DataBuffer buffer = bufferFactory.wrap(bytes);
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private void runPreEncoded(GatewayError error, int iterations) {
+        for (int i = 0; i < iterations; i++) {
+            DataBuffer buffer = bufferFactory.wrap(error.payload());
+            DataBufferUtils.release(buffer);
+        }
+    }
+}
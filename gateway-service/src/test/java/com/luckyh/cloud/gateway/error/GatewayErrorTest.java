@@ -0,0 +1,56 @@
+package com.luckyh.cloud.gateway.error;
+
+import io.netty.buffer.ByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ReadOnlyBufferException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预编码错误响应测试
+ */
+class GatewayErrorTest {
+
+    @Test
+    void repeatedWritesLeaveSharedPayloadIntact() {
+        for (GatewayError error : GatewayError.values()) {
+            byte[] expected = error.bytes();
+            for (int i = 0; i < 3; i++) {
+                ByteBuf payload = error.payload();
+                assertEquals(0, payload.readerIndex());
+                assertEquals(expected.length, payload.readableBytes());
+
+                // 模拟Netty写出：读完整个缓冲区后释放
+                byte[] written = new byte[payload.readableBytes()];
+                payload.readBytes(written);
+                payload.release();
+
+                assertArrayEquals(expected, written);
+                assertEquals(0, payload.readableBytes());
+            }
+            ByteBuf next = error.payload();
+            assertEquals(0, next.readerIndex());
+            assertEquals(expected.length, next.readableBytes());
+            assertEquals(1, next.refCnt());
+        }
+    }
+
+    @Test
+    void payloadIsReadOnly() {
+        ByteBuf payload = GatewayError.FORBIDDEN.payload();
+        assertTrue(payload.isReadOnly());
+        assertThrows(ReadOnlyBufferException.class, () -> payload.setByte(0, 'x'));
+    }
+
+    @Test
+    void bodyIsUtf8Json() {
+        GatewayError error = GatewayError.FORBIDDEN;
+        assertEquals("{\"code\":403,\"message\":\"权限不足\"}", new String(error.bytes(), StandardCharsets.UTF_8));
+        assertEquals(error.bytes().length, error.contentLength());
+    }
+}
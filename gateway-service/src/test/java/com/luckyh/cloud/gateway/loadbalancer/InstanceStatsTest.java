@@ -0,0 +1,54 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 实例延迟统计测试
+ */
+class InstanceStatsTest {
+
+    private static final long DECAY = TimeUnit.SECONDS.toNanos(10);
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void idleColdInstanceIsProbed() {
+        InstanceStats cold = new InstanceStats(DECAY, 0);
+        InstanceStats warm = warm(10 * MS, 0);
+        assertEquals(0.0, cold.cost(0, 1));
+        assertTrue(cold.cost(0, 1) < warm.cost(0, 1));
+    }
+
+    @Test
+    void coldInstanceWithInFlightLosesToWarmInstance() {
+        InstanceStats cold = new InstanceStats(DECAY, 0);
+        InstanceStats warm = warm(10 * MS, 0);
+        for (int i = 0; i < 50; i++) {
+            warm.start();
+        }
+        cold.start();
+        assertTrue(cold.cost(0, 1) > warm.cost(0, 1));
+
+        // 首个响应返回后按实际延迟计算
+        cold.complete(20 * MS, MS);
+        assertEquals(20.0 * MS, cold.cost(MS, 1), MS * 0.01);
+    }
+
+    @Test
+    void fullyDecayedInstanceWithInFlightIsPenalized() {
+        InstanceStats stats = warm(10 * MS, 0);
+        long muchLater = DECAY * 1000;
+        stats.start();
+        assertTrue(stats.cost(muchLater, 1) > warm(10 * MS, muchLater).cost(muchLater, 1));
+    }
+
+    private static InstanceStats warm(long latencyNanos, long nowNanos) {
+        InstanceStats stats = new InstanceStats(DECAY, nowNanos);
+        stats.observe(latencyNanos, nowNanos);
+        return stats;
+    }
+}
@@ -0,0 +1,133 @@
+package com.luckyh.cloud.gateway.loadbalancer;
+
+import com.luckyh.cloud.gateway.config.LoadBalancerProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 峰值EWMA负载均衡器测试
+ * <p>
+ * 通过真实的{@link PeakEwmaLoadBalancer#choose()}选择实例，每次选中后只记录请求开始、不记录完成，
+ * 在途数随之累积，各实例分到的请求数反映成本中延迟与权重的比例。
+ */
+class PeakEwmaLoadBalancerTest {
+
+    private static final String SERVICE_ID = "order-service";
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private LoadBalancerProperties properties;
+    private InstanceLatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoadBalancerProperties();
+        tracker = new InstanceLatencyTracker(properties);
+    }
+
+    @Test
+    void trafficFollowsWeight() {
+        ServiceInstance heavy = instance(1, "3");
+        ServiceInstance light = instance(2, "1");
+        warm(heavy, 10 * MS);
+        warm(light, 10 * MS);
+
+        Map<ServiceInstance, Integer> assigned = chooseMany(loadBalancer(heavy, light), 400);
+
+        // 延迟相同时成本按(在途数+1)/权重均衡，两个实例时每次都比较二者，分配比例接近权重比
+        double ratio = (double) assigned.get(heavy) / assigned.get(light);
+        assertTrue(ratio > 2.5 && ratio < 3.5, assigned::toString);
+    }
+
+    @Test
+    void slowInstanceGetsLessTraffic() {
+        ServiceInstance fast1 = instance(1, null);
+        ServiceInstance fast2 = instance(2, null);
+        ServiceInstance slow = instance(3, null);
+        warm(fast1, 10 * MS);
+        warm(fast2, 10 * MS);
+        warm(slow, 100 * MS);
+
+        Map<ServiceInstance, Integer> assigned = chooseMany(loadBalancer(fast1, fast2, slow), 600);
+
+        int slowCount = assigned.getOrDefault(slow, 0);
+        assertTrue(slowCount < assigned.get(fast1) && slowCount < assigned.get(fast2), assigned::toString);
+        assertTrue(slowCount < 600 * 0.1, "慢实例分到过多流量: " + slowCount);
+    }
+
+    @Test
+    void newColdInstanceIsProbedOnceBeforeFirstResponse() {
+        ServiceInstance warm1 = instance(1, null);
+        ServiceInstance warm2 = instance(2, null);
+        ServiceInstance warm3 = instance(3, null);
+        ServiceInstance cold = instance(4, null);
+        warm(warm1, 10 * MS);
+        warm(warm2, 10 * MS);
+        warm(warm3, 10 * MS);
+        PeakEwmaLoadBalancer loadBalancer = loadBalancer(warm1, warm2, warm3, cold);
+
+        // 冷实例在首个响应返回前只接到一个探测请求
+        Map<ServiceInstance, Integer> assigned = chooseMany(loadBalancer, 200);
+        assertEquals(1, assigned.get(cold));
+
+        // 探测请求返回较高延迟后，冷实例按实际成本参与选择，仍只分到少量流量
+        tracker.onComplete(cold, 100 * MS, false);
+        assigned = chooseMany(loadBalancer, 200);
+        assertTrue(assigned.getOrDefault(cold, 0) < 200 * 0.1, assigned::toString);
+    }
+
+    private Map<ServiceInstance, Integer> chooseMany(PeakEwmaLoadBalancer loadBalancer, int requests) {
+        Map<ServiceInstance, Integer> assigned = new HashMap<>();
+        for (int i = 0; i < requests; i++) {
+            Response<ServiceInstance> response = loadBalancer.choose().block();
+            ServiceInstance chosen = response.getServer();
+            tracker.onStart(chosen);
+            assigned.merge(chosen, 1, Integer::sum);
+        }
+        return assigned;
+    }
+
+    private void warm(ServiceInstance instance, long latencyNanos) {
+        tracker.onStart(instance);
+        tracker.onComplete(instance, latencyNanos, false);
+    }
+
+    private PeakEwmaLoadBalancer loadBalancer(ServiceInstance... instances) {
+        List<ServiceInstance> list = List.of(instances);
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("serviceInstanceListSupplier", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICE_ID;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(list);
+            }
+        });
+        return new PeakEwmaLoadBalancer(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                SERVICE_ID, tracker, properties);
+    }
+
+    private static ServiceInstance instance(int index, String weight) {
+        Map<String, String> metadata = new HashMap<>();
+        if (weight != null) {
+            metadata.put("nacos.weight", weight);
+        }
+        return new DefaultServiceInstance(SERVICE_ID + "-" + index, SERVICE_ID, "10.0.0." + index, 8080, false, metadata);
+    }
+}
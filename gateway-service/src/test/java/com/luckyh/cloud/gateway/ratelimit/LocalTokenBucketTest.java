@@ -0,0 +1,41 @@
+package com.luckyh.cloud.gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 本地令牌桶测试
+ */
+class LocalTokenBucketTest {
+
+    @Test
+    void rejectsOnceCapacityIsUsed() {
+        LocalTokenBucket bucket = new LocalTokenBucket(0.001, 2);
+        assertTrue(bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void hasTokenDoesNotDebit() {
+        LocalTokenBucket bucket = new LocalTokenBucket(0.001, 1);
+        assertTrue(bucket.hasToken());
+        assertTrue(bucket.hasToken());
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.hasToken());
+    }
+
+    @Test
+    void releaseReturnsTokenWithoutExceedingCapacity() {
+        LocalTokenBucket bucket = new LocalTokenBucket(0.001, 1);
+        assertTrue(bucket.tryAcquire());
+        bucket.release();
+        assertTrue(bucket.tryAcquire());
+        bucket.release();
+        bucket.release();
+        assertTrue(bucket.tryAcquire());
+        assertFalse(bucket.tryAcquire());
+    }
+}
@@ -5,8 +5,10 @@ import com.luckyh.cloud.order.common.Result;
 import com.luckyh.cloud.order.dto.OrderDTO;
 import com.luckyh.cloud.order.service.OrderService;
 import com.luckyh.cloud.order.vo.OrderVO;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
@@ -35,11 +37,19 @@ public class OrderController {
 
     /**
      * 根据ID获取订单
+     *
+     * @param withUser 是否填充用户信息，网关聚合接口自行批量获取用户信息时传false
      */
     @GetMapping("/{id}")
-    public Result<OrderVO> getOrderById(@PathVariable Long id) {
-        OrderVO orderVO = orderService.getOrderById(id);
+    public Result<OrderVO> getOrderById(@PathVariable Long id,
+                                        @RequestParam(defaultValue = "true") boolean withUser,
+                                        HttpServletResponse response) {
+        OrderVO orderVO = orderService.getOrderById(id, withUser);
         if (orderVO != null) {
+            if (orderVO.isDegraded()) {
+                // 降级的用户信息不能被网关响应缓存
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            }
             return Result.success(orderVO);
         }
         return Result.error("订单不存在");
@@ -12,6 +12,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class UserServiceFallback implements UserServiceFeign {
 
+    /**
+     * 降级响应的message，调用方据此识别占位用户信息
+     */
+    public static final String DEGRADED_MESSAGE = "用户服务降级";
+
     @Override
     public Result<OrderVO.UserInfo> getUserById(Long userId) {
         log.warn("调用用户服务失败，启用降级处理，用户ID：{}", userId);
@@ -21,6 +26,6 @@ public class UserServiceFallback implements UserServiceFeign {
         userInfo.setUsername("未知用户");
         userInfo.setRealName("未知用户");
 
-        return Result.success(userInfo);
+        return Result.success(DEGRADED_MESSAGE, userInfo);
     }
 }
@@ -1,6 +1,7 @@
 package com.luckyh.cloud.order.interceptor;
 
 import cn.hutool.core.util.StrUtil;
+import com.luckyh.cloud.common.constant.CommonConstants;
 import com.luckyh.cloud.common.web.context.UserContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -8,9 +9,13 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
 
 /**
  * 用户信息拦截器
+ * <p>
+ * 用户信息由网关校验令牌后写入请求头，客户端自带的同名请求头会被网关清除
  */
 @Slf4j
 @Component
@@ -19,24 +24,26 @@ public class UserInfoInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
         // 从请求头中获取用户信息
-        String userId = request.getHeader("X-User-Id");
-        String username = request.getHeader("X-Username");
-        String realName = request.getHeader("X-Real-Name");
-        String userType = request.getHeader("X-User-Type");
+        String userId = request.getHeader(CommonConstants.HEADER_USER_ID);
+        String username = request.getHeader(CommonConstants.HEADER_USERNAME);
+        String realName = request.getHeader(CommonConstants.HEADER_REAL_NAME);
+        String userType = request.getHeader(CommonConstants.HEADER_USER_TYPE);
 
         if (StrUtil.isNotBlank(userId)) {
             try {
                 UserContext.UserInfo userInfo = new UserContext.UserInfo();
                 userInfo.setUserId(Long.parseLong(userId));
                 userInfo.setUsername(username);
-                userInfo.setRealName(realName);
+                if (StrUtil.isNotBlank(realName)) {
+                    userInfo.setRealName(URLDecoder.decode(realName, StandardCharsets.UTF_8));
+                }
                 if (StrUtil.isNotBlank(userType)) {
                     userInfo.setUserType(Integer.parseInt(userType));
                 }
 
                 UserContext.setUserInfo(userInfo);
                 log.debug("设置用户上下文: userId={}, username={}", userId, username);
-            } catch (NumberFormatException e) {
+            } catch (IllegalArgumentException e) {
                 log.warn("解析用户信息失败: {}", e.getMessage());
             }
         }
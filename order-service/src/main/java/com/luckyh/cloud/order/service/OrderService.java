@@ -27,6 +27,15 @@ public interface OrderService extends IService<OrderInfo> {
      */
     OrderVO getOrderById(Long id);
 
+    /**
+     * 根据ID获取订单
+     *
+     * @param id           订单ID
+     * @param withUserInfo 是否调用用户服务填充用户信息，网关聚合接口自行获取用户信息时传false
+     * @return 订单VO
+     */
+    OrderVO getOrderById(Long id, boolean withUserInfo);
+
     /**
      * 分页查询订单
      *
@@ -12,6 +12,7 @@ import com.luckyh.cloud.order.common.Result;
 // import com.luckyh.cloud.common.trace.util.TraceUtils;
 import com.luckyh.cloud.order.dto.OrderDTO;
 import com.luckyh.cloud.order.entity.OrderInfo;
+import com.luckyh.cloud.order.feign.UserServiceFallback;
 import com.luckyh.cloud.order.feign.UserServiceFeign;
 import com.luckyh.cloud.order.mapper.OrderMapper;
 import com.luckyh.cloud.order.service.OrderService;
@@ -102,13 +103,18 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, OrderInfo> implem
 
     @Override
     public OrderVO getOrderById(Long id) {
+        return getOrderById(id, true);
+    }
+
+    @Override
+    public OrderVO getOrderById(Long id, boolean withUserInfo) {
         OrderInfo orderInfo = getById(id);
         if (orderInfo == null) {
             log.warn("订单不存在，订单ID：{}", id);
             return null;
         }
 
-        return buildOrderVO(orderInfo);
+        return withUserInfo ? buildOrderVO(orderInfo) : buildOrderVOWithoutUser(orderInfo);
     }
 
     @Override
@@ -192,9 +198,7 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, OrderInfo> implem
      * 构建订单VO
      */
     private OrderVO buildOrderVO(OrderInfo orderInfo) {
-        OrderVO orderVO = new OrderVO();
-        BeanUtil.copyProperties(orderInfo, orderVO);
-        orderVO.setStatusDesc(STATUS_MAP.get(orderInfo.getStatus()));
+        OrderVO orderVO = buildOrderVOWithoutUser(orderInfo);
 
         // 获取用户信息
         try {
@@ -202,10 +206,23 @@ public class OrderServiceImpl extends ServiceImpl<OrderMapper, OrderInfo> implem
             if (userResult.getCode() == 200 && userResult.getData() != null) {
                 orderVO.setUserInfo(userResult.getData());
             }
+            orderVO.setDegraded(orderVO.getUserInfo() == null
+                    || UserServiceFallback.DEGRADED_MESSAGE.equals(userResult.getMessage()));
         } catch (Exception e) {
             log.warn("获取用户信息失败，订单ID：{}，用户ID：{}", orderInfo.getId(), orderInfo.getUserId(), e);
+            orderVO.setDegraded(true);
         }
 
         return orderVO;
     }
+
+    /**
+     * 构建不含用户信息的订单VO
+     */
+    private OrderVO buildOrderVOWithoutUser(OrderInfo orderInfo) {
+        OrderVO orderVO = new OrderVO();
+        BeanUtil.copyProperties(orderInfo, orderVO);
+        orderVO.setStatusDesc(STATUS_MAP.get(orderInfo.getStatus()));
+        return orderVO;
+    }
 }
@@ -1,5 +1,6 @@
 package com.luckyh.cloud.order.vo;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -31,6 +32,12 @@ public class OrderVO {
      */
     private UserInfo userInfo;
 
+    /**
+     * 用户信息是否为降级数据或获取失败，不输出到响应，控制器据此禁止缓存
+     */
+    @JsonIgnore
+    private boolean degraded;
+
     /**
      * 商品名称
      */
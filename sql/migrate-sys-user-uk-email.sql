@@ -0,0 +1,18 @@
+-- 已有数据库升级：sys_user邮箱唯一索引
+-- 注册改为依赖唯一索引判重，空邮箱统一存为NULL（NULL不参与唯一约束）
+-- 新建数据库直接执行init.sql即可，无需执行本脚本
+
+USE `luckyh_cloud`;
+
+-- 1. 空字符串邮箱改为NULL，否则多个空邮箱会在唯一索引上冲突
+UPDATE `sys_user` SET `email` = NULL WHERE `email` = '';
+
+-- 2. 检查重复邮箱（包括已逻辑删除的用户），有结果时须先人工处理，否则第3步会失败
+SELECT `email`, COUNT(*) AS `cnt`, GROUP_CONCAT(`id`) AS `user_ids`
+FROM `sys_user`
+WHERE `email` IS NOT NULL
+GROUP BY `email`
+HAVING COUNT(*) > 1;
+
+-- 3. 普通索引替换为唯一索引
+ALTER TABLE `sys_user` DROP INDEX `idx_email`, ADD UNIQUE KEY `uk_email` (`email`);
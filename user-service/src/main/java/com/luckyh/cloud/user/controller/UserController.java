@@ -1,15 +1,22 @@
 package com.luckyh.cloud.user.controller;
 
+import cn.hutool.core.util.StrUtil;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.luckyh.cloud.common.constant.CommonConstants;
 import com.luckyh.cloud.user.common.Result;
 import com.luckyh.cloud.user.dto.UserDTO;
 import com.luckyh.cloud.user.service.UserService;
 import com.luckyh.cloud.user.vo.UserVO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
 /**
  * 用户控制器
  */
@@ -19,8 +26,13 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class UserController {
 
+    private static final int MAX_BATCH_SIZE = 200;
+
     private final UserService userService;
 
+    @Value("${user.internal.service-token:}")
+    private String serviceToken;
+
     /**
      * 创建用户
      */
@@ -57,6 +69,23 @@ public class UserController {
         return Result.error("用户删除失败");
     }
 
+    /**
+     * 根据ID批量获取用户，内部接口，仅供携带服务凭证的网关聚合接口调用
+     */
+    @GetMapping("/batch")
+    public Result<List<UserVO>> getUsersByIds(
+            @RequestHeader(value = CommonConstants.HEADER_SERVICE_TOKEN, required = false) String token,
+            @RequestParam List<Long> ids) {
+        if (!isServiceCall(token)) {
+            log.warn("拒绝未携带有效服务凭证的批量用户查询");
+            return Result.error(CommonConstants.FORBIDDEN_CODE, "无权访问内部接口");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return Result.error("单次最多查询" + MAX_BATCH_SIZE + "个用户");
+        }
+        return Result.success(userService.getUsersByIds(ids));
+    }
+
     /**
      * 根据ID获取用户
      */
@@ -81,6 +110,17 @@ public class UserController {
         return Result.success(userPage);
     }
 
+    /**
+     * 校验服务凭证，未配置凭证时拒绝所有调用
+     */
+    private boolean isServiceCall(String token) {
+        if (StrUtil.isBlank(serviceToken) || StrUtil.isBlank(token)) {
+            return false;
+        }
+        return MessageDigest.isEqual(serviceToken.getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
     /**
      * 健康检查
      */
@@ -6,6 +6,8 @@ import com.luckyh.cloud.user.dto.UserDTO;
 import com.luckyh.cloud.user.entity.User;
 import com.luckyh.cloud.user.vo.UserVO;
 
+import java.util.List;
+
 /**
  * 用户服务接口
  */
@@ -44,6 +46,14 @@ public interface UserService extends IService<User> {
      */
     UserVO getUserById(Long id);
 
+    /**
+     * 根据ID批量获取用户
+     *
+     * @param ids 用户ID列表
+     * @return 存在的用户VO列表
+     */
+    List<UserVO> getUsersByIds(List<Long> ids);
+
     /**
      * 分页查询用户
      *
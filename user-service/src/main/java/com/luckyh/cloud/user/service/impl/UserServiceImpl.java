@@ -18,6 +18,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * 用户服务实现类
@@ -109,6 +111,21 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements Us
         return userVO;
     }
 
+    @Override
+    public List<UserVO> getUsersByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return listByIds(ids).stream()
+                .map(user -> {
+                    UserVO userVO = new UserVO();
+                    BeanUtil.copyProperties(user, userVO);
+                    return userVO;
+                })
+                .toList();
+    }
+
     @Override
     public Page<UserVO> getUserPage(Long current, Long size, String username) {
         Page<User> userPage = new Page<>(current, size);